@@ -0,0 +1,24 @@
+/**
+ * The temperature dependence of the attraction parameter of a cubic equation of state, a(T) = alpha(T)*a(Tc).
+ * The mixing rule only ever needs sqrt(alpha), so that is what is returned.
+ * Implementing classes: SoaveAlphaFunction and RedlichKwongAlphaFunction.
+ */
+public interface AlphaFunction
+{
+     /**
+      * @param temperature The temperature in K.
+      * @param criticalTemperature The critical temperature of the species in K.
+      * @param accentricFactor The accentric factor of the species.
+      * @return sqrt(alpha) for the species
+      */
+     public double calculateSqrtAlpha(double temperature, double criticalTemperature, double accentricFactor);
+     
+     /**
+      * @param temperature The temperature in K.
+      * @param criticalTemperature The critical temperature of the species in K.
+      * @param accentricFactor The accentric factor of the species.
+      * @return d(sqrt(alpha))/dT for the species in 1/K
+      */
+     public double calculatedSqrtAlphadT(double temperature, double criticalTemperature, double accentricFactor);
+     
+}//end of interface
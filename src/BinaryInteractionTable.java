@@ -0,0 +1,75 @@
+/**
+ * A table of binary interaction parameters (kij) for the Peng-Robinson mixing rule.
+ * Reads a CSV laid out as: idNumber1, idNumber2, kij (with a heading row and a units row, like DataSIUnits.csv).
+ * The parameters are stored as a packed symmetric matrix indexed by species ID number. Any pair not in the table has kij = 0.
+ */
+public class BinaryInteractionTable extends DataTableIO
+{
+     
+     
+     private double[] kij;  //packed lower triangle, see index()
+     private int maxIdNum;
+     
+     
+//---------------------------------------------------CONSTRUCTORS-----------------------------------------------------
+     
+     
+     /**
+      * Reads in the table at the path provided.
+      * @param path a String containing the absolute path of the data file
+      */
+     public BinaryInteractionTable(String path)
+     {
+          super(path);
+          
+          String[][] table = getTableString();
+          
+          //The first two rows are the headings and units
+          this.maxIdNum = 0;
+          for(int row=2; row<table.length; row++)
+               this.maxIdNum = Math.max(this.maxIdNum, Math.max(Integer.parseInt(table[row][0].trim()), Integer.parseInt(table[row][1].trim())));
+          
+          this.kij = new double[index(this.maxIdNum, this.maxIdNum) + 1];
+          for(int row=2; row<table.length; row++)
+          {
+               int idNum1 = Integer.parseInt(table[row][0].trim());
+               int idNum2 = Integer.parseInt(table[row][1].trim());
+               this.kij[index(idNum1, idNum2)] = Double.parseDouble(table[row][2].trim());
+          }
+     }
+     
+     
+//----------------------------------------------------METHODS--------------------------------------------------------
+     
+     
+     /**
+      * Returns the binary interaction parameter between two species.
+      * @param idNum1 The ID number of the first species.
+      * @param idNum2 The ID number of the second species.
+      * @return kij, or 0 if the pair isn't in the table.
+      */
+     public double getKij(int idNum1, int idNum2)
+     {
+          if(idNum1 > this.maxIdNum || idNum2 > this.maxIdNum)
+               return 0.0;
+          
+          return this.kij[index(idNum1, idNum2)];
+     }
+     
+     
+     /**
+      * The position of a pair in the packed lower triangle. kij = kji so the order of the ID numbers doesn't matter.
+      * @param idNum1 The ID number of the first species.
+      * @param idNum2 The ID number of the second species.
+      * @return the index of the pair in the kij array
+      */
+     private static int index(int idNum1, int idNum2)
+     {
+          int row = Math.max(idNum1, idNum2);
+          int column = Math.min(idNum1, idNum2);
+          
+          return row*(row+1)/2 + column;
+     }
+     
+     
+}//End of BinaryInteractionTable class
@@ -1,563 +1,473 @@
-import numericMethods.*;
-import customExceptions.NotFlashable;
-import customExceptions.BadFunction;
-import java.util.Arrays;
-
-/**
- * A FlashModel (FlashClient) class that represents system described in "Case One" in the project requirment document
- * Requires Validation and Exception Handling Analysis.
- * @version 11.0 - 2017/11/21
- */
-public class CaseTwo extends FlashModel
-{
-     
-     
-     private FlashTank flashTank;
-     private VLEModel vleModel;
-     private double[] kiArray;
-     
-     
-     
-     
-//------------------------------------------------CONSTRUCTORS---------------------------------------------------------
-     
-     
-     /**
-      * Takes in all requred instance variables for Case One (A tank, pressure and temperature).
-      * @param flashTank must be a properly consturcted FlashTank Object
-      * @param vleModel The model used in determining the K values
-      */
-     public CaseTwo(FlashTank flashTank, VLEModel vleModel){
-          
-          this.flashTank = flashTank.clone();
-          this.vleModel = vleModel; //No params, nothing to clone
-          this.kiArray = new double[flashTank.getFeedStream().getSpecies().length];
-          
-     }
-     
-     /**
-      * Default constructor
-      * For constructing a blank object in the main method for the purpose of being overwritten
-      * */
-     public CaseTwo()
-     {
-          this.flashTank = null;
-          this.vleModel = null;
-          this.kiArray = null;
-     }
-     
-//-----------------------------------------------------METHODS---------------------------------------------------------
-     
-     
-     /**
-      * This FlashClients required solveSystem method definition.
-      * @throws NotFlashable if the bubble and dewpoint checks fail.
-      * @return a FlashTank object with all the parameters calculated according to case1
-      */
-     public FlashTank solveSystem() throws NotFlashable{
-          
-          //Create default liquid and vapour outlet streams @the flash temp and pressure
-          LiquidSpecies[] liquidStreamSpecies = createLiquidSpeciesArray();
-          VapourSpecies[] vapourStreamSpecies = createVapourSpeciesArray();
-          
-          double outletTemperature = 0; //default flashTemp
-          double outletPressure = this.flashTank.getPressure();
-          double[] defaultMoleFractions = this.flashTank.getFeedStream().getMoleFractions(); 
-          
-          this.flashTank.setLiquidStream(new Stream(liquidStreamSpecies, 0.0, defaultMoleFractions, 
-                                                    outletPressure, outletTemperature));
-          this.flashTank.setVapourStream(new Stream(vapourStreamSpecies, 0.0, defaultMoleFractions,
-                                                    outletPressure, outletTemperature));
-
-          //get Temperature bounds from bubble to dew 
-
-          
-          double[] bounds = findBounds();
-          
-          System.out.println(Arrays.toString(bounds));
-          //Ridder's method through temp to find an adiabatic temp
-          try{
-               double adiabaticTemp = RootFinder.ridderRoot(bounds[0], bounds[1], 0, 0.1, 2000, new HasRoot() {               
-                    public double findYGivenX(double T) throws BadFunction {
-                         flashTank.setFlashTemp(T);
-                         
-                         //Guess ki values
-                         kiArray = (new WilsonSRKModel()).calculateKi(flashTank);
-                         
-                         double tolerance = 0.0001;
-                         double maxDifference = 0.0;
-                         int counter = 1;
-                         
-                         do {//solve the system at the given temp
-                              counter++;
-                              //Calculate V/F uses Ki values w. Ridder's method
-                              //Implements the interface in an anonymous class
-                              double VFRatio = RootFinder.ridderRoot(0,1,0,0.0001,2000, new HasRoot() {
-                                   public double findYGivenX(double psi) {
-                                        
-                                        double summation = 0.0;
-                                        
-                                        //Extract feed mole fractions
-                                        double[] moleFractionsFeed = flashTank.getFeedStream().getMoleFractions();
-                                        
-                                        //Calculate the sum of yi
-                                        for (int i=0; i<flashTank.getFeedStream().getSpecies().length;i++)
-                                        {
-                                             summation += moleFractionsFeed[i] * (kiArray[i] - 1)
-                                                  / (1 + psi * (kiArray[i]-1));
-                                        }
-                                        //System.out.println("Summation is: " + summation + " psi is: " + psi);
-                                        
-                                        return summation;
-                                   }
-                              } ); //returns VFRatio that satisfies mass balance
-                              
-                              double vapourFlow = flashTank.getFeedStream().getTotalMolarFlow() * VFRatio;
-                              
-                              flashTank.setVapourStreamFlowRate(vapourFlow);
-                              
-                              //Calculate L
-                              double liquidFlow = flashTank.getFeedStream().getTotalMolarFlow() - vapourFlow; 
-                              flashTank.setLiquidStreamFlowRate(liquidFlow);
-                              
-                              //Calculate yi[]
-                              double[] yiArray = calculateYiArray();
-                              flashTank.setVapourStreamMoleFractions(yiArray);
-                              
-                              //Calculate xi[] using mass balance (not k values)
-                              double[] xiArray = calculateXiArray();
-                              flashTank.setLiquidStreamMoleFractions(xiArray);
-                              
-                              //Recalculate the K values and compare
-                              double[] kiOld = kiArray;
-                              try {
-                                   kiArray = vleModel.calculateKi(flashTank.clone()); 
-                              }
-                              catch (NotFlashable e) {
-                                   throw new BadFunction("The origin of this is a NotFlashable error in case 2." 
-                                                              + "It likely means that no T could be found in the flashable interval such that"
-                                                              + "Q = 0... Returning the lowest Q found");
-                              }
-                              
-                              maxDifference = 0.0;
-                              for(int i=0; i<kiArray.length; i++) {
-                                   double difference = Math.abs(kiOld[i]-kiArray[i]);
-                                   if(difference >= maxDifference)
-                                        maxDifference = difference;
-                              }
-                              
-                         } while((maxDifference>tolerance) && (counter<1000));
-                         
-                         //Calculate Q, the temperature of the flash tank is known at this point
-                         //Q = V*Hv + L*Hl - F*Hf
-                         double Q = flashTank.getVapourStream().getTotalMolarFlow() * flashTank.getVapourStream().totalEnthalpy()
-                              + flashTank.getLiquidStream().getTotalMolarFlow() * flashTank.getLiquidStream().totalEnthalpy()
-                              - flashTank.getFeedStream().getTotalMolarFlow() * flashTank.getFeedStream().totalEnthalpy();
-                         flashTank.setHeatExchangerQ(Q);
-                         
-                         System.out.println(T+"-"+Q);
-                         return Q;
-                    }
-               });
-          }
-          catch(BadFunction e)
-          {
-               throw new NotFlashable("An adiabatic flash between [" + bounds[0] + "," + bounds[1] + "] is not possible");
-          }
-          
-          
-          
-          return this.flashTank.clone();
-     }
-     
-     /**
-      * Determines if the mixture is flashable at a given pressure and temperature by calculating the sum(xi*ki) and sum(yi/ki).
-      * If either of these are below 1, then the mixture is not flashable under the given conditions.
-      * @throws NotFlashable if the mixture exceeds the bubble pressure or falls short of the dew pressure
-      */
-     private void checkFlashable() throws NotFlashable{
-     //DEW POINT CHECK
-          FlashTank localTank = this.flashTank.clone();
-          //guess Ki
-          double[] localKiArray = (new WilsonSRKModel()).calculateKi(localTank);
-          double[] localKiArrayOld = null;
-          
-          //yi = zi
-          localTank.setVapourStreamMoleFractions(localTank.getFeedStream().getMoleFractions());
-          
-          //calculate Ki and Xi
-          double[] xiArray = new double[localTank.getFeedStream().getSpecies().length];
-          double tolerance = 0.0001;
-          double maxDifference = 0.0;
-          int counter = 0;
-          do{
-               counter++;
-               
-               //Calculate xiArray               
-               for(int i=0; i<xiArray.length; i++) {
-                    if(localTank.getFeedStream().getSpecies()[i].getIsCondensable())
-                         xiArray[i] = localTank.getFeedStream().getMoleFractions()[i]/localKiArray[i];
-                    else 
-                         xiArray[i] = 0;
-               }
-               localTank.setLiquidStreamMoleFractions(xiArray);
-               
-               //calculate new ki vals
-               localKiArrayOld = localKiArray;
-               localKiArray = this.vleModel.calculateKi(localTank);
-               
-               maxDifference = 0.0;
-               for(int i=0; i<localKiArray.length; i++) {
-                    double difference = Math.abs(localKiArrayOld[i]-localKiArray[i]);
-                    if(difference >= maxDifference)
-                         maxDifference = difference;
-               }
-          }while((maxDifference>tolerance) && (counter<1000));
-          
-          //calculate the dewsum
-          double dewSum = 0.0;
-          for(int i=0; i<xiArray.length; i++) {
-               dewSum += xiArray[i]; //y/k
-          }
-          
-     //BUBBLE POINT CHECK
-          localTank = this.flashTank.clone();
-          //guess Ki
-          localKiArray = (new WilsonSRKModel()).calculateKi(localTank);
-          localKiArrayOld = null;
-          
-          //xi=zi
-          localTank.setLiquidStreamMoleFractions(localTank.getFeedStream().getMoleFractions());
-          
-          //calculate Ki and yi
-          double[] yiArray = new double[localTank.getFeedStream().getSpecies().length];
-          tolerance = 0.0001;
-          maxDifference = 0.0;
-          counter = 0;
-          do{
-               counter++;
-               
-               //Calculate yiArray               
-               for(int i=0; i<yiArray.length; i++) {
-                    if(localTank.getFeedStream().getSpecies()[i].getIsCondensable())
-                         yiArray[i] = localTank.getFeedStream().getMoleFractions()[i] * localKiArray[i];
-                    else 
-                         yiArray[i] = localTank.getFeedStream().getMoleFractions()[i];
-               }
-               localTank.setVapourStreamMoleFractions(yiArray);
-               
-               //calculate new ki vals
-               localKiArrayOld = localKiArray;
-               localKiArray = this.vleModel.calculateKi(localTank);
-               
-               maxDifference = 0.0;
-               for(int i=0; i<localKiArray.length; i++) {
-                    double difference = Math.abs(localKiArrayOld[i]-localKiArray[i]);
-                    if(difference >= maxDifference)
-                         maxDifference = difference;
-               }
-          }while((maxDifference>tolerance) && (counter<1000));
-          
-          //calculate the bubbleSum
-          double bubbleSum = 0.0;
-          for(int i=0; i<yiArray.length; i++) {
-               bubbleSum += yiArray[i]; //x*k
-          }
-          
-          if(bubbleSum<1)
-               throw new NotFlashable("System not solved...\nThe operating pressure is above the bubble pressure for this system.");
-          else if(dewSum<1)
-               throw new NotFlashable("System not solved...\nThe operating pressure is below the dew pressure for this system.");
-     }
-     
-     /**
-      * Determines an approximate dew and bubble temperature for the mixture by scanning from 100 to 2000K for the (first) range
-      * at which the mixture is flashable.
-      * @return an array with [bubble Temp, dew Temp]
-      * @throws NotFlashable if no flashable range is found
-      */
-     private double[] findBounds() throws NotFlashable {
-          FlashTank flashTankHolder = this.flashTank.clone(); //gotta hold dat. I need the original back
-          
-          double T = 100; //gotta start somewhere
-          double[] toReturn = new double[2];
-          int counter = 0;
-          
-          //Get the lower flashable temperature. loops while it isnt flashable
-          boolean isFlashable = false;
-          while(!isFlashable&&(counter<=2000)) {
-               try {
-                    checkFlashable();
-                    toReturn[0] = T;//lowerbound
-                    isFlashable = true;//end the loop when its true
-               }
-               catch(NotFlashable e) {//if it isnt flashable, try the next temp
-                    T++;
-                    this.flashTank.setFlashTemp(T);
-                    counter++;
-               }  
-          }
-          
-          if(isFlashable == false) //if it hasn't reached flashable by 2000 iterations, its probably not flashable
-               throw new NotFlashable();
-          
-          //Get the upper flashable bound. Loops while it is flashable.
-          while(isFlashable&&(counter<=2000)) {
-               this.flashTank.setFlashTemp(T);
-               try {//if it is flashable, try the next temperature
-                    checkFlashable();
-                    T++;
-                    this.flashTank.setFlashTemp(T);
-                    counter++;
-               }
-               catch(NotFlashable e) {
-                    toReturn[1] = T;//upper bound
-                    isFlashable = false;//end the loop when its false
-               }
-               
-          }
-          
-          this.flashTank = flashTankHolder.clone();   
-          return toReturn;         
-     }
-     
-     /**
-      * Caculates the dew and bubble temperatures 
-      * @return an array with [bubble temperature, dew temperature]
-      */
-     private double[] calculateTemperatureBounds() throws NotFlashable{ 
-          FlashTank localTank = this.flashTank.clone();
-          double[] toReturn = new double[2];
-          
-     
-          //Estimate T
-          double guessTemperature = 0.0;
-          for(int i=0; i<localTank.getFeedStream().getSpecies().length; i++) {
-               double Tc = localTank.getFeedStream().getSpecies()[i].getCriticalTemperature();
-               double Pc = localTank.getFeedStream().getSpecies()[i].getCriticalPressure();
-               double w = localTank.getFeedStream().getSpecies()[i].getAccentricFactor();
-               double Ti_sat = Tc/(1 - 3 * Math.log(localTank.getPressure()/Pc) / 
-                                   (Math.log(10) * (7+7*w)));
-               
-               if(localTank.getFeedStream().getSpecies()[i].getIsCondensable())
-                    guessTemperature += Ti_sat * localTank.getFeedStream().getMoleFractions()[i];
-          }
-                    
-          localTank = this.flashTank.clone();
-          
-      //BUBBLE TEMPERATURE
-          //guess Ki
-          double[] localKiArray = (new WilsonSRKModel()).calculateKi(localTank);
-          double[] localKiArrayOld = null;
-          
-          //xi=zi
-          localTank.setLiquidStreamMoleFractions(localTank.getFeedStream().getMoleFractions());
-          
-          double bubbleTemperature = guessTemperature;
-          double bubbleSum = 0.0;
-          int counterOuter = 0;
-          boolean hasBeenPassed = false;
-          do {
-               counterOuter++;
-               
-               //calculate Ki and yi
-               double[] yiArray = new double[localTank.getFeedStream().getSpecies().length];
-               double tolerance = 0.0001;
-               double maxDifference = 0.0;
-               int counterInner = 0;
-               do{
-                    counterInner++;
-                    
-                    //Calculate yiArray               
-                    for(int i=0; i<yiArray.length; i++) {
-                         if(localTank.getFeedStream().getSpecies()[i].getIsCondensable())
-                              yiArray[i] = localTank.getFeedStream().getMoleFractions()[i] * localKiArray[i];
-                         else 
-                              yiArray[i] = localTank.getFeedStream().getMoleFractions()[i];
-                    }
-                    localTank.setVapourStreamMoleFractions(yiArray);
-                    
-                    //calculate new ki vals
-                    
-                   
-                    localKiArrayOld = localKiArray;
-                    localKiArray = this.vleModel.calculateKi(localTank);
-                    
-                    maxDifference = 0.0;
-                    for(int i=0; i<localKiArray.length; i++) {
-                         double difference = Math.abs(localKiArrayOld[i]-localKiArray[i]);
-                         if(difference >= maxDifference)
-                              maxDifference = difference;
-                    }
-               }while((maxDifference>tolerance) && (counterInner<1000));
-               
-               //calculate the bubbleSum
-               double bubbleSumOld = bubbleSum;
-               bubbleSum = 0.0;
-               for(int i=0; i<yiArray.length; i++) {
-                    bubbleSum += yiArray[i]; //x*k
-               }
-               
-               if(((bubbleSumOld<1)&&(bubbleSum>1))||((bubbleSumOld>1)&&(bubbleSum<1)))//if the step has passed the bubble point
-                    hasBeenPassed = true;
-               else if (bubbleSum>1) {//the temp is too high
-                    bubbleTemperature--;
-                    localTank.setFlashTemp(bubbleTemperature);
-               }
-               else if(bubbleSum<1) {//the temp is too low
-                    bubbleTemperature++;
-                    localTank.setFlashTemp(bubbleTemperature);
-               }
-               
-          }while((!hasBeenPassed)&&(counterOuter<1000));
-          toReturn[0] = bubbleTemperature;   
-          
-     //DEW TEMPERATURE
-          localTank = this.flashTank.clone();
-         //guess Ki
-          localKiArray = (new WilsonSRKModel()).calculateKi(localTank);
-          localKiArrayOld = null;
-          
-          //yi = zi
-          localTank.setVapourStreamMoleFractions(localTank.getFeedStream().getMoleFractions());
-          
-          double dewTemperature = guessTemperature;
-          double dewSum = 0;
-          counterOuter = 0;
-          hasBeenPassed = false;
-          do{
-               counterOuter++;
-               
-               //calculate Ki and Xi
-               double[] xiArray = new double[localTank.getFeedStream().getSpecies().length];
-               double tolerance = 0.0001;
-               double maxDifference = 0.0;
-               int counterInner = 0;
-               do{
-                    counterInner++;
-                    
-                    //Calculate xiArray               
-                    for(int i=0; i<xiArray.length; i++) {
-                         if(localTank.getFeedStream().getSpecies()[i].getIsCondensable())
-                              xiArray[i] = localTank.getFeedStream().getMoleFractions()[i]/localKiArray[i];
-                         else 
-                              xiArray[i] = 0;
-                    }
-                    localTank.setLiquidStreamMoleFractions(xiArray);
-                    
-                    //calculate new ki vals
-                    localKiArrayOld = localKiArray;
-                    localKiArray = this.vleModel.calculateKi(localTank);
-                    
-                    maxDifference = 0.0;
-                    for(int i=0; i<localKiArray.length; i++) {
-                         double difference = Math.abs(localKiArrayOld[i]-localKiArray[i]);
-                         if(difference >= maxDifference)
-                              maxDifference = difference;
-                    }
-               }while((maxDifference>tolerance) && (counterInner<1000));
-               
-               //calculate the dewSum
-               double dewSumOld = dewSum;
-               dewSum = 0.0;
-               for(int i=0; i<xiArray.length; i++) {
-                    dewSum += xiArray[i]; //y/k
-               }     
-               
-               //figure out which way to move the dewSum
-               if(((dewSumOld<1)&&(dewSum>1))||((dewSumOld>1)&&(dewSum<1)))//if the step has passed the bubble point
-                    hasBeenPassed = true;
-               else if (dewSum>1) {//the temp is too high
-                    dewTemperature--;
-                    localTank.setFlashTemp(dewTemperature);
-               }
-               else if(dewSum<1) {//the temp is too low
-                    dewTemperature++;
-                    localTank.setFlashTemp(dewTemperature);
-               }
-               
-          }while((!hasBeenPassed)&&(counterOuter<1000));
-          toReturn[1] = dewTemperature;
-          
-          return toReturn; 
-     }
-     
-     
-     /**
-      * Creates an array of liquid species matching the species in the feed stream.
-      * @return an array of LiquidSpecies matching the feed stream species.
-      */
-     private LiquidSpecies[] createLiquidSpeciesArray() {
-          
-          int length = this.flashTank.getFeedStream().getSpecies().length;
-          LiquidSpecies[] toReturn = new LiquidSpecies[length];
-          
-          for(int i=0; i<length; i++)
-          {
-               toReturn[i] = new LiquidSpecies(flashTank.getFeedStream().getSpecies()[i]); //The way LiquidSpecies is made, this will work even if the feed has different phases
-          }
-          
-          return toReturn;      
-     }
-     
-     /**
-      * Creates an array of vapour species matching the species in the feed stream
-      * @return an array of vapour species matching the feed stream species
-      */
-     private VapourSpecies[] createVapourSpeciesArray() {
-          
-          int length = flashTank.getFeedStream().getSpecies().length;
-          VapourSpecies[] toReturn = new VapourSpecies[length];
-          
-          for(int i=0; i<length; i++)
-          {
-               toReturn[i] = new VapourSpecies(flashTank.getFeedStream().getSpecies()[i]); //The way LiquidSpecies is made, this will work even if the feed has different phases
-          }
-          
-          return toReturn;      
-     }
-     
-     
-     /**
-      * Only called after the flash tank V has been calculated
-      * P
-      */
-     private double[] calculateYiArray() {
-          
-          double[] yiArray = new double[this.flashTank.getFeedStream().getSpecies().length];
-          
-          double[] moleFractionsFeed = this.flashTank.getFeedStream().getMoleFractions();
-          double V = this.flashTank.getVapourStream().getTotalMolarFlow();
-          
-          //Calculate yis
-          for (int i=0; i<this.flashTank.getFeedStream().getSpecies().length;i++)
-          {
-               if(!flashTank.getFeedStream().getSpecies()[i].getIsCondensable()) { //non-condensable
-                    yiArray[i] = flashTank.getFeedStream().getTotalMolarFlow() * moleFractionsFeed[i] / V;
-               }
-               else {//condensable
-                    yiArray[i] = flashTank.getFeedStream().getTotalMolarFlow() * moleFractionsFeed[i]* kiArray[i] 
-                         / (flashTank.getFeedStream().getTotalMolarFlow() + V*(this.kiArray[i]-1));
-               }
-          }
-          
-          return yiArray;  
-     }
-     
-     
-     private double[] calculateXiArray() {
-          
-          double[] xiArray = new double[this.flashTank.getFeedStream().getSpecies().length];
-          
-          double[] yiArray = this.flashTank.getVapourStream().getMoleFractions();
-          
-          for(int i=0; i<xiArray.length; i++) {
-               xiArray[i] = (this.flashTank.getFeedStream().getTotalMolarFlow() * this.flashTank.getFeedStream().getMoleFractions()[i]
-                                  -  this.flashTank.getVapourStream().getTotalMolarFlow() * this.flashTank.getVapourStream().getMoleFractions()[i])
-                    / this.flashTank.getLiquidStream().getTotalMolarFlow();
-
-          }
-          
-          return xiArray;
-     } 
+import numericMethods.*;
+import customExceptions.NotFlashable;
+import java.util.Arrays;
+
+/**
+ * A FlashModel (FlashClient) class that represents system described in "Case One" in the project requirment document
+ * Requires Validation and Exception Handling Analysis.
+ * @version 11.0 - 2017/11/21
+ */
+public class CaseTwo extends FlashModel
+{
+     
+     
+     private FlashTank flashTank;
+     private VLEModel vleModel;
+     private double[] kiArray;
+     
+     private static final double ADIABATIC_TOLERANCE = 1e-9;  //on ln(Ki) and the scaled energy balance
+     private static final int MAX_ADIABATIC_ITERATIONS = 20;
+     private static final int SUBSTITUTION_STEPS = 3;  //before Newton's method takes over
+     
+     
+     
+//------------------------------------------------CONSTRUCTORS---------------------------------------------------------
+     
+     
+     /**
+      * Takes in all requred instance variables for Case One (A tank, pressure and temperature).
+      * @param flashTank must be a properly consturcted FlashTank Object
+      * @param vleModel The model used in determining the K values
+      */
+     public CaseTwo(FlashTank flashTank, VLEModel vleModel){
+          
+          this.flashTank = flashTank;
+          this.vleModel = vleModel; //No params, nothing to clone
+          this.kiArray = new double[flashTank.getComponentSet().getNumComponents()];
+          
+     }
+     
+     /**
+      * Default constructor
+      * For constructing a blank object in the main method for the purpose of being overwritten
+      * */
+     public CaseTwo()
+     {
+          this.flashTank = null;
+          this.vleModel = null;
+          this.kiArray = null;
+     }
+     
+//-----------------------------------------------------METHODS---------------------------------------------------------
+     
+     
+     /**
+      * This FlashClients required solveSystem method definition.
+      * @throws NotFlashable if the bubble and dewpoint checks fail.
+      * @return a FlashTank object with all the parameters calculated according to case1
+      */
+     public FlashTank solveSystem() throws NotFlashable{
+          
+          //Create default liquid and vapour outlet streams @the flash temp and pressure
+          LiquidSpecies[] liquidStreamSpecies = createLiquidSpeciesArray();
+          VapourSpecies[] vapourStreamSpecies = createVapourSpeciesArray();
+          
+          double outletTemperature = 0; //default flashTemp
+          double outletPressure = this.flashTank.getPressure();
+          double[] defaultMoleFractions = this.flashTank.getFeedStream().getMoleFractions(); 
+          
+          this.flashTank = this.flashTank.withLiquidStream(new Stream(liquidStreamSpecies, 0.0, defaultMoleFractions, 
+                                                                      outletPressure, outletTemperature));
+          this.flashTank = this.flashTank.withVapourStream(new Stream(vapourStreamSpecies, 0.0, defaultMoleFractions,
+                                                                      outletPressure, outletTemperature));
+
+          //get Temperature bounds from bubble to dew 
+          ComponentSet components = this.flashTank.getComponentSet();
+          double[] bounds = SaturationPointSolver.twoPhaseRange(this.vleModel, components, defaultMoleFractions, outletPressure);
+          
+          AdiabaticBalance balance = new AdiabaticBalance(components, defaultMoleFractions, 
+                                                          this.flashTank.getFeedStream().getTotalMolarFlow(), outletPressure);
+          
+          //Solve for the temperature, the split and the K values together
+          if (solveSimultaneously(balance, bounds))
+               return this.flashTank;
+          
+          //Newton's method didn't make it, so fall back to Brent's method through temp to find an adiabatic temp
+          //Every evaluation is a full flash on the balance's FlashState, starting from the K values the last one converged to,
+          //and the flash tank is only updated once, at the root
+          //If the flash fails at some temperature, Q is NaN there and Brent's method stops with a BAD_VALUE status
+          FlashState state = balance.state;
+          ScalarFunction heatBalance = new ScalarFunction() {
+               private boolean warmStart = false;  //true if the K values in the state are from a flash that worked
+               
+               public double findYGivenX(double T) {
+                    state.setTemperature(T);
+                    
+                    try {
+                         //Guess ki values, if the last flash didn't leave any
+                         if (!this.warmStart)
+                              (new WilsonSRKModel()).calculateKi(components, T, outletPressure, null, null, state.getKi());
+                         
+                         this.warmStart = false;
+                         state.solveBySubstitution(vleModel, 0.0001, 1000);
+                         this.warmStart = true;
+                    }
+                    catch (NotFlashable e) {
+                         return Double.NaN;
+                    }
+                    
+                    return balance.calculateQ(T, state.getVapourFlow(), state.getLiquidMoleFractions(), state.getVapourMoleFractions());
+               }
+          };
+          
+          RootResult adiabaticTemp = RootFinder.brentRoot(bounds[0], bounds[1], 0, 0.01, 2000, heatBalance);
+          if (adiabaticTemp.getStatus() != RootResult.CONVERGED)
+               throw new NotFlashable("An adiabatic flash between [" + bounds[0] + "," + bounds[1] + "] is not possible");
+          
+          //The state holds whatever temperature was evaluated last, which isn't always the root
+          if (state.getTemperature() != adiabaticTemp.getRoot())
+               heatBalance.findYGivenX(adiabaticTemp.getRoot());
+          
+          updateFlashTank(state);
+          
+          return this.flashTank;
+     }
+     
+     /**
+      * The adiabatic flash as one system of equations, solved with Newton's method.
+      * The unknowns are ln(Ki) of every condensable species in the feed and the temperature, and the equations are
+      * ln(Ki) - ln(phi i liquid) + ln(phi i vapour) = 0 and Q(T) = 0, with V/F from the Rachford-Rice equation at every evaluation.
+      * The Jacobian is analytic: the ln(phi) derivatives of the VLE model and the Species heat capacities, chained through the Rachford-Rice equation.
+      * The starting temperature interpolates Q between the bubble and dew points, and the starting K values come from a stability test there
+      * followed by a few steps of successive substitution.
+      * @param balance The equations, for the feed of the flash tank.
+      * @param bounds [bubble Temp, dew Temp]
+      * @return true if it converged to a two phase solution between the bubble and dew points, which is then in the flash tank.
+      * false if the flash tank wasn't changed.
+      */
+     private boolean solveSimultaneously(AdiabaticBalance balance, double[] bounds) throws NotFlashable {
+          ComponentSet components = this.flashTank.getComponentSet();
+          double[] moleFractionsFeed = this.flashTank.getFeedStream().getMoleFractions();
+          double feedFlow = this.flashTank.getFeedStream().getTotalMolarFlow();
+          double pressure = this.flashTank.getPressure();
+          
+          //Q is close to linear in T across the two phase region, and at its ends the outlet is all liquid or all vapour
+          double bubbleQ = balance.calculateQ(bounds[0], 0, moleFractionsFeed, moleFractionsFeed);
+          double dewQ = balance.calculateQ(bounds[1], feedFlow, moleFractionsFeed, moleFractionsFeed);
+          double fraction = -bubbleQ/(dewQ-bubbleQ);
+          if (!(fraction > 0.05))
+               fraction = 0.05;
+          else if (fraction > 0.95)
+               fraction = 0.95;
+          double temperature = bounds[0] + fraction*(bounds[1]-bounds[0]);
+          
+          PhaseStabilityAnalysis stability = PhaseStabilityAnalysis.analyse(this.vleModel, components, moleFractionsFeed, temperature, pressure);
+          double[] ki = stability.getKi();
+          if (stability.isStable()) {
+               //At the starting temperature, the flash tank doesn't have one yet
+               ki = new double[components.getNumComponents()];
+               (new WilsonSRKModel()).calculateKi(components, temperature, pressure, null, null, ki);
+          }
+          
+          double[] unknowns = balance.createUnknowns(ki, temperature);
+          
+          //A few substitution steps at the starting temperature, since ln(Ki) - residual is the next substitution estimate
+          SolverWorkspace workspace = balance.state.getWorkspace();
+          double[] residuals = workspace.getResiduals();
+          for (int iter=0; iter<SUBSTITUTION_STEPS; iter++) {
+               balance.findYGivenX(unknowns, residuals, null);
+               for (int k=0; k<unknowns.length-1; k++)
+                    unknowns[k] -= residuals[k];
+          }
+          
+          SystemResult result = workspace.getSystemSolver(unknowns.length).solve(balance, unknowns, ADIABATIC_TOLERANCE, 
+                                                                                MAX_ADIABATIC_ITERATIONS, true);
+          if (result.getStatus() != SystemResult.CONVERGED)
+               return false;
+          
+          //Evaluate once more at the solution, since the solver's last evaluation isn't always at it
+          //Newton's method isn't held to the bubble to dew range, and outside of it it can land on a split that isn't the adiabatic flash
+          balance.findYGivenX(unknowns, residuals, null);
+          FlashState state = balance.state;
+          if (!(state.getVapourFlow() > 0 && state.getVapourFlow() < feedFlow)
+                   || !SaturationPointSolver.isInTwoPhaseRange(state.getTemperature(), bounds))
+               return false;
+          
+          updateFlashTank(state);
+          
+          return true;
+     }
+     
+     
+     /**
+      * Builds the outlet streams of the flash tank from a solved FlashState, and the Q they give.
+      * @param state The adiabatic flash, at its temperature.
+      */
+     private void updateFlashTank(FlashState state) {
+          this.flashTank = state.toFlashTank(this.flashTank);
+          this.kiArray = Arrays.copyOf(state.getKi(), state.getKi().length);
+          
+          //Q = V*Hv + L*Hl - F*Hf
+          double Q = this.flashTank.getVapourStream().getTotalMolarFlow() * this.flashTank.getVapourStream().totalEnthalpy()
+               + this.flashTank.getLiquidStream().getTotalMolarFlow() * this.flashTank.getLiquidStream().totalEnthalpy()
+               - this.flashTank.getFeedStream().getTotalMolarFlow() * this.flashTank.getFeedStream().totalEnthalpy();
+          this.flashTank = this.flashTank.withHeatExchangerQ(Q);
+     }
+     
+     
+     /**
+      * The equations of the simultaneous adiabatic flash, as a function of [ln(Ki) of each condensable species in the feed, T].
+      * Each evaluation leaves T, V, Ki, xi and yi in its FlashState. If the VLE model can't be evaluated, the equations are NaN.
+      * The energy balance is the same Q as the flash tank reports, scaled by F^2*R*T so it is about as big as the others.
+      * The Jacobian follows xi = zi/(1+psi(Ki-1)) and yi = Ki*xi, where psi = V/F moves with every Ki to keep the Rachford-Rice equation at 0:
+      * d(psi)/d(ln Kj) = (zj*Kj/Dj^2)/sum(zi(Ki-1)^2/Di^2), with Di = 1+psi(Ki-1). Non-condensable species are only in the vapour, yi = zi/psi.
+      * The temperature only changes ln(phi) and the enthalpies, since the phase compositions come from the K values.
+      */
+     private class AdiabaticBalance implements VectorFunction
+     {
+          private ComponentSet components;
+          private Species[] liquidSpecies;
+          private Species[] vapourSpecies;
+          private double[] moleFractionsFeed;
+          private double feedFlow;
+          private double feedEnthalpy;  //F*Hf
+          private double energyScale;
+          private int[] unknownSpecies;  //the species index of each ln(Ki) unknown
+          private FlashState state;
+          private double[][] dlnPhiLiquiddn;
+          private double[][] dlnPhiVapourdn;
+          private double[] dlnPhiLiquiddT;
+          private double[] dlnPhiVapourdT;
+          private double[] liquidEnthalpies;  //Hi of each species at the last temperature
+          private double[] vapourEnthalpies;
+          private double[] dxidlnK;  //the change in the phase compositions with one ln(Kj)
+          private double[] dyidlnK;
+          private double[] heatCapacity;
+          
+          
+          private AdiabaticBalance(ComponentSet components, double[] moleFractionsFeed, double feedFlow, double pressure)
+          {
+               int n = components.getNumComponents();
+               this.components = components;
+               this.liquidSpecies = flashTank.getLiquidStream().getSpecies();
+               this.vapourSpecies = flashTank.getVapourStream().getSpecies();
+               this.moleFractionsFeed = moleFractionsFeed;
+               this.feedFlow = feedFlow;
+               this.feedEnthalpy = feedFlow * flashTank.getFeedStream().totalEnthalpy();
+               this.state = new FlashState(components, moleFractionsFeed, feedFlow, 0, pressure);
+               this.dlnPhiLiquiddn = new double[n][n];
+               this.dlnPhiVapourdn = new double[n][n];
+               this.dlnPhiLiquiddT = new double[n];
+               this.dlnPhiVapourdT = new double[n];
+               this.liquidEnthalpies = new double[n];
+               this.vapourEnthalpies = new double[n];
+               this.dxidlnK = new double[n];
+               this.dyidlnK = new double[n];
+               this.heatCapacity = new double[1];
+               
+               int count = 0;
+               for (int i=0; i<n; i++) {
+                    if (components.getIsCondensable(i) && moleFractionsFeed[i] > 0)
+                         count++;
+               }
+               this.unknownSpecies = new int[count];
+               count = 0;
+               for (int i=0; i<n; i++) {
+                    if (components.getIsCondensable(i) && moleFractionsFeed[i] > 0)
+                         this.unknownSpecies[count++] = i;
+               }
+          }
+          
+          
+          /**
+           * @return The unknowns for Newton's method, [ln(Ki)..., T].
+           */
+          private double[] createUnknowns(double[] ki, double temperature)
+          {
+               int m = this.unknownSpecies.length;
+               double[] unknowns = new double[m+1];
+               for (int k=0; k<m; k++)
+                    unknowns[k] = Math.log(ki[this.unknownSpecies[k]]);
+               unknowns[m] = temperature;
+               this.energyScale = this.feedFlow*this.feedFlow*Species.R*temperature;
+               
+               for (int i=0; i<ki.length; i++)
+                    this.state.setKi(i, this.components.getIsCondensable(i) ? ki[i] : VLEModel.NON_CONDENSABLE_K);
+               
+               return unknowns;
+          }
+          
+          
+          /**
+           * Q = V*Hv + L*Hl - F*Hf, worked out the same way as from the flash tank's streams.
+           * @return Q in J/s.
+           */
+          private double calculateQ(double temperature, double vapourFlow, double[] xiArray, double[] yiArray)
+          {
+               double liquidFlow = this.feedFlow - vapourFlow;
+               double vapourEnthalpy = 0;
+               double liquidEnthalpy = 0;
+               for (int i=0; i<this.components.getNumComponents(); i++) {
+                    if (yiArray[i] != 0)
+                         vapourEnthalpy += yiArray[i]*this.vapourSpecies[i].calcEnthalpy(temperature);
+                    if (xiArray[i] != 0)
+                         liquidEnthalpy += xiArray[i]*this.liquidSpecies[i].calcEnthalpy(temperature);
+               }
+               
+               return vapourFlow*vapourEnthalpy*vapourFlow + liquidFlow*liquidEnthalpy*liquidFlow - this.feedEnthalpy;
+          }
+          
+          
+          public void findYGivenX(double[] unknowns, double[] y, double[][] dydx)
+          {
+               int m = this.unknownSpecies.length;
+               double temperature = unknowns[m];
+               this.state.setTemperature(temperature);
+               for (int k=0; k<m; k++)
+                    this.state.setKi(this.unknownSpecies[k], Math.exp(unknowns[k]));
+               this.state.split();
+               
+               try {
+                    if (!(temperature > 0))
+                         throw new NotFlashable();
+                    if (dydx == null)
+                         this.state.calculateLnFugacityCoefficients(vleModel);
+                    else
+                         this.state.calculateLnFugacityCoefficients(vleModel, this.dlnPhiLiquiddn, this.dlnPhiVapourdn, 
+                                                                    this.dlnPhiLiquiddT, this.dlnPhiVapourdT);
+               }
+               catch (NotFlashable e) {
+                    Arrays.fill(y, Double.NaN);
+                    return;
+               }
+               
+               double[] lnPhiLiquid = this.state.getLiquidLnFugacityCoefficients();
+               double[] lnPhiVapour = this.state.getVapourLnFugacityCoefficients();
+               for (int k=0; k<m; k++) {
+                    int i = this.unknownSpecies[k];
+                    y[k] = unknowns[k] - lnPhiLiquid[i] + lnPhiVapour[i];
+               }
+               y[m] = calculateQ(temperature, this.state.getVapourFlow(), this.state.getLiquidMoleFractions(), 
+                                 this.state.getVapourMoleFractions())/this.energyScale;
+               
+               if (dydx != null)
+                    calculateJacobian(dydx);
+          }
+          
+          
+          /**
+           * Fills the Jacobian of the equations at the split and ln(phi) derivatives left in the state by findYGivenX.
+           * @param dydx Filled with d(equation k)/d(unknown l) in dydx[k][l].
+           */
+          private void calculateJacobian(double[][] dydx)
+          {
+               int m = this.unknownSpecies.length;
+               int n = this.components.getNumComponents();
+               double temperature = this.state.getTemperature();
+               double VFRatio = this.state.getVFRatio();
+               double vapourFlow = this.state.getVapourFlow();
+               double liquidFlow = this.feedFlow - vapourFlow;
+               double[] ki = this.state.getKi();
+               double[] xiArray = this.state.getLiquidMoleFractions();
+               double[] yiArray = this.state.getVapourMoleFractions();
+               
+               //The enthalpies of both phases, and how Q changes with T at fixed compositions
+               double vapourEnthalpy = 0;
+               double liquidEnthalpy = 0;
+               double dQdT = 0;
+               for (int i=0; i<n; i++) {
+                    this.vapourEnthalpies[i] = 0;
+                    this.liquidEnthalpies[i] = 0;
+                    if (yiArray[i] != 0) {
+                         this.vapourEnthalpies[i] = this.vapourSpecies[i].calcEnthalpy(temperature, this.heatCapacity);
+                         vapourEnthalpy += yiArray[i]*this.vapourEnthalpies[i];
+                         dQdT += vapourFlow*vapourFlow*yiArray[i]*this.heatCapacity[0];
+                    }
+                    if (xiArray[i] != 0) {
+                         this.liquidEnthalpies[i] = this.liquidSpecies[i].calcEnthalpy(temperature, this.heatCapacity);
+                         liquidEnthalpy += xiArray[i]*this.liquidEnthalpies[i];
+                         dQdT += liquidFlow*liquidFlow*xiArray[i]*this.heatCapacity[0];
+                    }
+               }
+               
+               //-df/d(psi) of the Rachford-Rice equation. Outside of two phases psi is held at 0 or 1, so it doesn't move with the K values
+               double rachfordRiceSlope = 0;
+               for (int i=0; VFRatio > 0 && VFRatio < 1 && i<n; i++) {
+                    if (!this.components.getIsCondensable(i))
+                         rachfordRiceSlope += this.moleFractionsFeed[i]/(VFRatio*VFRatio);
+                    else if (this.moleFractionsFeed[i] > 0) {
+                         double denominator = 1 + VFRatio*(ki[i]-1);
+                         rachfordRiceSlope += this.moleFractionsFeed[i]*(ki[i]-1)*(ki[i]-1)/(denominator*denominator);
+                    }
+               }
+               
+               for (int l=0; l<m; l++) {
+                    int j = this.unknownSpecies[l];
+                    double denominatorj = 1 + VFRatio*(ki[j]-1);
+                    double dVFRatio = 0;
+                    if (rachfordRiceSlope > 0)
+                         dVFRatio = this.moleFractionsFeed[j]*ki[j]/(denominatorj*denominatorj)/rachfordRiceSlope;
+                    
+                    //Q = V^2*Hv + L^2*Hl - F*Hf, with dV = -dL = F*d(psi)
+                    double dQ = 2*(vapourFlow*vapourEnthalpy - liquidFlow*liquidEnthalpy)*this.feedFlow*dVFRatio;
+                    for (int s=0; s<n; s++) {
+                         if (!this.components.getIsCondensable(s)) {
+                              this.dxidlnK[s] = 0;
+                              this.dyidlnK[s] = (VFRatio > 0) ? -yiArray[s]*dVFRatio/VFRatio : 0;
+                         }
+                         else {
+                              double denominator = 1 + VFRatio*(ki[s]-1);
+                              double dDenominator = (ki[s]-1)*dVFRatio + ((s == j) ? VFRatio*ki[s] : 0);
+                              this.dxidlnK[s] = -xiArray[s]*dDenominator/denominator;
+                              this.dyidlnK[s] = ki[s]*this.dxidlnK[s] + ((s == j) ? yiArray[s] : 0);
+                         }
+                         dQ += vapourFlow*vapourFlow*this.vapourEnthalpies[s]*this.dyidlnK[s] 
+                              + liquidFlow*liquidFlow*this.liquidEnthalpies[s]*this.dxidlnK[s];
+                    }
+                    
+                    //n*d(ln phi i)/d(nj) at a fixed amount of phase is the change in ln(phi i) with the mole fraction xj
+                    for (int k=0; k<m; k++) {
+                         int i = this.unknownSpecies[k];
+                         double dResidual = (k == l) ? 1 : 0;
+                         for (int s=0; s<n; s++)
+                              dResidual += this.dlnPhiVapourdn[i][s]*this.dyidlnK[s] - this.dlnPhiLiquiddn[i][s]*this.dxidlnK[s];
+                         dydx[k][l] = dResidual;
+                    }
+                    dydx[m][l] = dQ/this.energyScale;
+               }
+               
+               for (int k=0; k<m; k++) {
+                    int i = this.unknownSpecies[k];
+                    dydx[k][m] = this.dlnPhiVapourdT[i] - this.dlnPhiLiquiddT[i];
+               }
+               dydx[m][m] = dQdT/this.energyScale;
+          }
+     }
+     
+     
+     /**
+      * Creates an array of liquid species matching the species in the feed stream.
+      * @return an array of LiquidSpecies matching the feed stream species.
+      */
+     private LiquidSpecies[] createLiquidSpeciesArray() {
+          
+          Species[] species = this.flashTank.getFeedStream().getSpecies();
+          int length = species.length;
+          LiquidSpecies[] toReturn = new LiquidSpecies[length];
+          
+          for(int i=0; i<length; i++)
+          {
+               toReturn[i] = new LiquidSpecies(species[i]); //The way LiquidSpecies is made, this will work even if the feed has different phases
+          }
+          
+          return toReturn;      
+     }
+     
+     /**
+      * Creates an array of vapour species matching the species in the feed stream
+      * @return an array of vapour species matching the feed stream species
+      */
+     private VapourSpecies[] createVapourSpeciesArray() {
+          
+          Species[] species = this.flashTank.getFeedStream().getSpecies();
+          int length = species.length;
+          VapourSpecies[] toReturn = new VapourSpecies[length];
+          
+          for(int i=0; i<length; i++)
+          {
+               toReturn[i] = new VapourSpecies(species[i]); //The way LiquidSpecies is made, this will work even if the feed has different phases
+          }
+          
+          return toReturn;      
+     }
 }//End of Class
\ No newline at end of file
@@ -0,0 +1,303 @@
+import java.util.Arrays;
+
+/**
+ * The constant properties of the components in a system, held as primitive arrays indexed by component.
+ * It is built once from the species, when a stream is made, and never changes after that,
+ * so it can be handed to every flash loop and VLE model without being copied and shared between threads.
+ * The liquid and vapour enthalpies still belong to LiquidSpecies and VapourSpecies, since they depend on the phase.
+ * It also evaluates the vapour pressures of every component at once, in log space, from constants worked out when it is built.
+ * Outside the temperature range of its Antoine constants, ln(Psat) of a component is carried on linearly in 1/T (Clausius-Clapeyron)
+ * from the end of the range, with the same slope, so it stays smooth and never reaches the pole of the Antoine Equation.
+ */
+public class ComponentSet
+{
+
+
+     private int numComponents;
+     private int[] idNums;
+     private String[] names;
+     private int[] numMolecules;
+
+     //Antoine's eq properties
+     private double[] antoineA;
+     private double[] antoineB;
+     private double[] antoineC;
+     private double[] minTemps;  //K, the range of the Antoine constants
+     private double[] maxTemps;  //K
+
+     //Worked out once from the Antoine constants: ln(Psat in Pa) = lnPsatConstants - antoineB/(T + antoineOffsets) inside the range,
+     //and lnPsat + lnPsatSlope*(1/T - 1/bound) beyond each end of it, where lnPsatSlope = d(ln Psat)/d(1/T) at that end
+     private double[] lnPsatConstants;
+     private double[] antoineOffsets;
+     private double[] lnPsatAtMinTemps;
+     private double[] lnPsatSlopeAtMinTemps;
+     private double[] lnPsatAtMaxTemps;
+     private double[] lnPsatSlopeAtMaxTemps;
+
+     //Latent heat properties
+     private double[] molarLatHeats;  //J/mol @ normal boiling temp
+     private double[] normBoilTemps;  //K
+
+     //Heat capacity correlations, one row per component
+     private double[][] liqHeatCapConstants;
+     private boolean[] isSpecial;
+     private double[][] gasHeatCapConstants;
+
+     //For non-ideal calculations
+     private double[] criticalTemperatures;  //K
+     private double[] criticalPressures;  //Pa
+     private double[] accentricFactors;
+
+     private boolean[] isCondensable;
+
+
+//---------------------------------------------CONSTRUCTORS------------------------------------------------------------
+
+
+     /**
+      * Copies the constant properties out of a set of species.
+      * @param species The species, in the same order as the mole fraction arrays they will be used with.
+      */
+     public ComponentSet(Species[] species)
+     {
+          int n = species.length;
+
+          this.numComponents = n;
+          this.idNums = new int[n];
+          this.names = new String[n];
+          this.numMolecules = new int[n];
+          this.antoineA = new double[n];
+          this.antoineB = new double[n];
+          this.antoineC = new double[n];
+          this.minTemps = new double[n];
+          this.maxTemps = new double[n];
+          this.lnPsatConstants = new double[n];
+          this.antoineOffsets = new double[n];
+          this.lnPsatAtMinTemps = new double[n];
+          this.lnPsatSlopeAtMinTemps = new double[n];
+          this.lnPsatAtMaxTemps = new double[n];
+          this.lnPsatSlopeAtMaxTemps = new double[n];
+          this.molarLatHeats = new double[n];
+          this.normBoilTemps = new double[n];
+          this.liqHeatCapConstants = new double[n][];
+          this.isSpecial = new boolean[n];
+          this.gasHeatCapConstants = new double[n][];
+          this.criticalTemperatures = new double[n];
+          this.criticalPressures = new double[n];
+          this.accentricFactors = new double[n];
+          this.isCondensable = new boolean[n];
+
+          for (int i=0; i<n; i++) {
+               Species toCopy = species[i];
+               double[] antoineConstants = toCopy.getAntoineConstants();
+
+               this.idNums[i] = toCopy.getIdNum();
+               this.names[i] = toCopy.getName();
+               this.numMolecules[i] = toCopy.getNumMolecules();
+               if (antoineConstants != null) {
+                    this.antoineA[i] = antoineConstants[0];
+                    this.antoineB[i] = antoineConstants[1];
+                    this.antoineC[i] = antoineConstants[2];
+               }
+               this.minTemps[i] = toCopy.getMinTemp();
+               this.maxTemps[i] = toCopy.getMaxTemp();
+               this.molarLatHeats[i] = toCopy.getMolarLatHeat();
+               this.normBoilTemps[i] = toCopy.getNormBoilTemp();
+               this.liqHeatCapConstants[i] = toCopy.getLiqHeatCapConstants();
+               this.isSpecial[i] = toCopy.getIsSpecial();
+               this.gasHeatCapConstants[i] = toCopy.getGasHeatCapConstants();
+               this.criticalTemperatures[i] = toCopy.getCriticalTemperature();
+               this.criticalPressures[i] = toCopy.getCriticalPressure();
+               this.accentricFactors[i] = toCopy.getAccentricFactor();
+               this.isCondensable[i] = toCopy.getIsCondensable();
+
+               this.compileVapourPressure(i);
+          }
+     }//End of constructor
+
+
+//-------------------------------------------------METHODS-------------------------------------------------------------
+
+
+     /**
+      * Works out the constants of the vapour pressure of one component.
+      * A component without a proper range (the max temperature isn't above the min) uses the Antoine Equation everywhere.
+      */
+     private void compileVapourPressure(int i)
+     {
+          this.lnPsatConstants[i] = this.antoineA[i] + Math.log(1000); //convert from kPa to Pa
+          this.antoineOffsets[i] = this.antoineC[i] - 273.15; //convert to C
+
+          if (!(this.maxTemps[i] > this.minTemps[i])) {
+               this.minTemps[i] = Double.NEGATIVE_INFINITY;
+               this.maxTemps[i] = Double.POSITIVE_INFINITY;
+               return;
+          }
+
+          double minTemp = this.minTemps[i];
+          double maxTemp = this.maxTemps[i];
+          this.lnPsatAtMinTemps[i] = this.lnPsatConstants[i] - this.antoineB[i] / (minTemp + this.antoineOffsets[i]);
+          this.lnPsatAtMaxTemps[i] = this.lnPsatConstants[i] - this.antoineB[i] / (maxTemp + this.antoineOffsets[i]);
+
+          //d(ln Psat)/d(1/T) = -T^2 * d(ln Psat)/dT
+          this.lnPsatSlopeAtMinTemps[i] = -minTemp * minTemp * this.antoineB[i] / Math.pow(minTemp + this.antoineOffsets[i], 2);
+          this.lnPsatSlopeAtMaxTemps[i] = -maxTemp * maxTemp * this.antoineB[i] / Math.pow(maxTemp + this.antoineOffsets[i], 2);
+     }
+
+
+     /**
+      * Returns the log of the vapour pressure of a component, from the Antoine Equation inside its range and Clausius-Clapeyron outside it.
+      * @param i The index of the component.
+      * @param temp the temperature in Kelvin
+      * @return ln(Psat), with Psat in Pa
+      */
+     public double calcLnVapourPressure(int i, double temp)
+     {
+          if (temp < this.minTemps[i])
+               return this.lnPsatAtMinTemps[i] + this.lnPsatSlopeAtMinTemps[i] * (1/temp - 1/this.minTemps[i]);
+          if (temp > this.maxTemps[i])
+               return this.lnPsatAtMaxTemps[i] + this.lnPsatSlopeAtMaxTemps[i] * (1/temp - 1/this.maxTemps[i]);
+
+          return this.lnPsatConstants[i] - this.antoineB[i] / (temp + this.antoineOffsets[i]);
+     }
+
+
+     /**
+      * Returns the vapour pressure of a component, the same way as calcLnVapourPressure.
+      * @param i The index of the component.
+      * @param temp the temperature in Kelvin
+      * @return the saturation pressure in Pa
+      */
+     public double calcVapourPressure(int i, double temp)
+     {
+          return Math.exp(this.calcLnVapourPressure(i, temp));
+     }
+
+
+     /**
+      * Returns the slope of the log of the vapour pressure of a component, the same way as calcLnVapourPressure.
+      * @param i The index of the component.
+      * @param temp the temperature in Kelvin
+      * @return d(ln Psat)/dT in 1/K
+      */
+     public double calcdLnVapourPressuredT(int i, double temp)
+     {
+          if (temp < this.minTemps[i])
+               return -this.lnPsatSlopeAtMinTemps[i] / (temp * temp);
+          if (temp > this.maxTemps[i])
+               return -this.lnPsatSlopeAtMaxTemps[i] / (temp * temp);
+
+          double denominator = temp + this.antoineOffsets[i];
+          return this.antoineB[i] / (denominator * denominator);
+     }
+
+
+     /**
+      * The log of the vapour pressure of every component at once, the same way as calcLnVapourPressure.
+      * @param temp the temperature in Kelvin
+      * @param lnVapourPressures Filled with ln(Psat) of each component, with Psat in Pa.
+      * @param dlnVapourPressuresdT If not null, filled with d(ln Psat)/dT of each component in 1/K.
+      */
+     public void calcLnVapourPressures(double temp, double[] lnVapourPressures, double[] dlnVapourPressuresdT)
+     {
+          double inverseTemp = 1/temp;
+
+          for (int i=0; i<this.numComponents; i++) {
+               if (temp < this.minTemps[i]) {
+                    lnVapourPressures[i] = this.lnPsatAtMinTemps[i] + this.lnPsatSlopeAtMinTemps[i] * (inverseTemp - 1/this.minTemps[i]);
+                    if (dlnVapourPressuresdT != null)
+                         dlnVapourPressuresdT[i] = -this.lnPsatSlopeAtMinTemps[i] * inverseTemp * inverseTemp;
+               }
+               else if (temp > this.maxTemps[i]) {
+                    lnVapourPressures[i] = this.lnPsatAtMaxTemps[i] + this.lnPsatSlopeAtMaxTemps[i] * (inverseTemp - 1/this.maxTemps[i]);
+                    if (dlnVapourPressuresdT != null)
+                         dlnVapourPressuresdT[i] = -this.lnPsatSlopeAtMaxTemps[i] * inverseTemp * inverseTemp;
+               }
+               else {
+                    double inverseDenominator = 1/(temp + this.antoineOffsets[i]);
+                    lnVapourPressures[i] = this.lnPsatConstants[i] - this.antoineB[i] * inverseDenominator;
+                    if (dlnVapourPressuresdT != null)
+                         dlnVapourPressuresdT[i] = this.antoineB[i] * inverseDenominator * inverseDenominator;
+               }
+          }
+     }
+
+
+     /**
+      * @param other Another set of components.
+      * @return true if both have the same components in the same order.
+      */
+     public boolean matches(ComponentSet other)
+     {
+          return this == other || (other != null && Arrays.equals(this.idNums, other.idNums));
+     }
+
+
+//------------------------------------------HOUSEKEEPING METHODS--------------------------------------------------------
+
+
+     public int getNumComponents() {
+          return this.numComponents;
+     }
+     public int getIdNum(int i) {
+          return this.idNums[i];
+     }
+     public int[] getIdNums() {
+          return Arrays.copyOf(this.idNums, this.numComponents);
+     }
+     public String getName(int i) {
+          return this.names[i];
+     }
+     public int getNumMolecules(int i) {
+          return this.numMolecules[i];
+     }
+     public double getAntoineA(int i) {
+          return this.antoineA[i];
+     }
+     public double getAntoineB(int i) {
+          return this.antoineB[i];
+     }
+     public double getAntoineC(int i) {
+          return this.antoineC[i];
+     }
+     /**
+      * @return the bottom of the range of the Antoine constants in K, or -Infinity if there isn't a range.
+      */
+     public double getMinTemp(int i) {
+          return this.minTemps[i];
+     }
+     /**
+      * @return the top of the range of the Antoine constants in K, or Infinity if there isn't a range.
+      */
+     public double getMaxTemp(int i) {
+          return this.maxTemps[i];
+     }
+     public double getMolarLatHeat(int i) {
+          return this.molarLatHeats[i];
+     }
+     public double getNormBoilTemp(int i) {
+          return this.normBoilTemps[i];
+     }
+     public double[] getLiqHeatCapConstants(int i) {
+          return (this.liqHeatCapConstants[i] == null) ? null : Arrays.copyOf(this.liqHeatCapConstants[i], this.liqHeatCapConstants[i].length);
+     }
+     public boolean getIsSpecial(int i) {
+          return this.isSpecial[i];
+     }
+     public double[] getGasHeatCapConstants(int i) {
+          return (this.gasHeatCapConstants[i] == null) ? null : Arrays.copyOf(this.gasHeatCapConstants[i], this.gasHeatCapConstants[i].length);
+     }
+     public double getCriticalTemperature(int i) {
+          return this.criticalTemperatures[i];
+     }
+     public double getCriticalPressure(int i) {
+          return this.criticalPressures[i];
+     }
+     public double getAccentricFactor(int i) {
+          return this.accentricFactors[i];
+     }
+     public boolean getIsCondensable(int i) {
+          return this.isCondensable[i];
+     }
+
+}//End of ComponentSet class
@@ -0,0 +1,413 @@
+import numericMethods.CubicEquationSolver;
+import customExceptions.NotFlashable;
+/**
+ * Calculates Ki Values using a two-parameter cubic equation of state,
+ * P = RT/(v-b) - alpha*a/(v^2 + u*b*v + w*b^2).
+ * Peng-Robinson, Soave-Redlich-Kwong and Redlich-Kwong only differ in u, w, the omegaA and omegaB constants and the alpha function,
+ * so they all share the kernel below and are configured by their subclasses.
+ * Requires cubic equations to be solved
+ */
+public class CubicEOSModel extends VLEModel
+{
+     private final ThreadLocal<CubicEOSParameters> threadParameters = new ThreadLocal<CubicEOSParameters>(); //each thread updates its own in place
+     private BinaryInteractionTable kijTable;
+     public static final double R = 8.314;
+
+     private double u;
+     private double w;
+     private double delta1;  //the roots of d^2 + u*d + w = 0 are -delta1 and -delta2
+     private double delta2;
+     private double omegaA;
+     private double omegaB;
+     private AlphaFunction alphaFunction;
+
+
+     /**
+      * @param u The u constant of the attractive term.
+      * @param w The w constant of the attractive term.
+      * @param omegaA The constant in a = omegaA*R^2*Tc^2/Pc.
+      * @param omegaB The constant in b = omegaB*R*Tc/Pc.
+      * @param alphaFunction The temperature dependence of a.
+      * @param kijTable The binary interaction parameters. If null, every kij is 0.
+      */
+     public CubicEOSModel(double u, double w, double omegaA, double omegaB, AlphaFunction alphaFunction, BinaryInteractionTable kijTable) {
+          this.u = u;
+          this.w = w;
+          double root = Math.sqrt(u*u - 4*w);
+          this.delta1 = (u + root)/2;
+          this.delta2 = (u - root)/2;
+          this.omegaA = omegaA;
+          this.omegaB = omegaB;
+          this.alphaFunction = alphaFunction;
+          this.kijTable = kijTable;
+     }
+
+
+     /**
+      * The method for determining Ki values.
+      * Calculates Ki values based off of fugacity coefficients.
+      * Everything is passed in, so the same model can be used for any number of flashes at once.
+      * @param components The species being flashed.
+      * @param temperature The temperature in K.
+      * @param pressure The pressure in Pa.
+      * @param liquidMoleFractions The mole fractions in the liquid phase (xi).
+      * @param vapourMoleFractions The mole fractions in the vapour phase (yi).
+      * @param ki Filled with the ki values for each species that is used to determine non-ideal VLE.
+      * */
+     public void calculateKi(ComponentSet components, double temperature, double pressure,
+                             double[] liquidMoleFractions, double[] vapourMoleFractions, double[] ki) throws NotFlashable {
+
+          calculateKi(components, temperature, pressure, liquidMoleFractions, vapourMoleFractions, ki, null, null);
+     }
+
+
+     /**
+      * The same as above, but the cubic is solved by refining the Z values of the last call with Newton's method.
+      * It is only solved from scratch if there aren't any, or if the refined root is on the wrong branch.
+      * @param zRoots The liquid and vapour compressibility factors from the last call, 0 if there weren't any. Updated with the new ones. Can be null.
+      * @param scratch Holds ln(phi) of the vapour, so nothing is allocated. If null, an array is allocated for it.
+      * */
+     public void calculateKi(ComponentSet components, double temperature, double pressure, double[] liquidMoleFractions, 
+                             double[] vapourMoleFractions, double[] ki, double[] zRoots, double[] scratch) throws NotFlashable {
+
+          CubicEOSParameters parameters = calculateParameters(components, temperature);
+          double[] vapourLnFugacityCoefficients = (scratch == null) ? new double[components.getNumComponents()] : scratch;
+
+          //For the liquid, the value of Z will be the smallest root from the cubic equation
+          //For the vapour, the value of Z will be the largest root from the cubic equation
+          double liquidZ = calculatePhase(parameters, temperature, pressure, liquidMoleFractions, true, 
+                                          (zRoots == null) ? 0 : zRoots[0], ki, null, null, null);
+          double vapourZ = calculatePhase(parameters, temperature, pressure, vapourMoleFractions, false, 
+                                          (zRoots == null) ? 0 : zRoots[1], vapourLnFugacityCoefficients, null, null, null);
+
+          if (zRoots != null) {
+               zRoots[0] = liquidZ;
+               zRoots[1] = vapourZ;
+          }
+
+          for (int i=0; i<components.getNumComponents(); i++) {
+               if(!components.getIsCondensable(i))
+                    ki[i] = NON_CONDENSABLE_K;
+               else
+                    ki[i] = Math.exp(ki[i] - vapourLnFugacityCoefficients[i]);
+          }
+     }
+
+
+     /**
+      * Calculates the natural log of the fugacity coefficients of one phase, along with their analytic derivatives.
+      * The derivatives are taken at constant Z-root branch (smallest root for a liquid, largest for a vapour).
+      * Any of the derivative arrays can be null if they aren't needed.
+      * @param components The species in the phase.
+      * @param temperature The temperature in K.
+      * @param pressure The pressure in Pa.
+      * @param moleFractions The mole fractions of the phase.
+      * @param isLiquid true to use the liquid (smallest) root of the cubic, false to use the vapour (largest) root.
+      * @param lnFugacityCoefficients Filled with ln(phi i).
+      * @param dlnPhidn Filled with n*d(ln phi i)/d(nj) at constant T, P and the other mole numbers, where n is the total moles of the phase.
+      * @param dlnPhidT Filled with d(ln phi i)/dT at constant P and composition in 1/K.
+      * @param dlnPhidP Filled with d(ln phi i)/dP at constant T and composition in 1/Pa.
+      * @return The compressibility factor of the phase.
+      */
+     public double calculateLnFugacityCoefficients(ComponentSet components, double temperature, double pressure, double[] moleFractions, boolean isLiquid,
+                                                  double[] lnFugacityCoefficients, double[][] dlnPhidn, double[] dlnPhidT, double[] dlnPhidP) throws NotFlashable {
+
+          CubicEOSParameters parameters = calculateParameters(components, temperature);
+
+          return calculatePhase(parameters, temperature, pressure, moleFractions, isLiquid, 0, lnFugacityCoefficients, dlnPhidn, dlnPhidT, dlnPhidP);
+     }
+
+
+     /**
+      * Calculates the natural log of the fugacity coefficients of one phase, warm-starting the cubic from the last Z of the phase.
+      * @param previousZ The compressibility factor of the phase from the last call. 0 if there isn't one.
+      * @return The compressibility factor of the phase.
+      */
+     public double calculateLnFugacityCoefficients(ComponentSet components, double temperature, double pressure, double[] moleFractions,
+                                                  boolean isLiquid, double previousZ, double[] lnFugacityCoefficients) throws NotFlashable {
+
+          CubicEOSParameters parameters = calculateParameters(components, temperature);
+
+          return calculatePhase(parameters, temperature, pressure, moleFractions, isLiquid, previousZ, lnFugacityCoefficients, null, null, null);
+     }
+
+
+     /**
+      * Calculates the natural log of the fugacity coefficients of one phase and their composition and temperature derivatives,
+      * warm-starting the cubic from the last Z of the phase.
+      * @param previousZ The compressibility factor of the phase from the last call. 0 if there isn't one.
+      * @param dlnPhidn Filled with n*d(ln phi i)/d(nj) at constant T, P and the other mole numbers, where n is the total moles of the phase. Can be null.
+      * @param dlnPhidT Filled with d(ln phi i)/dT at constant P and composition in 1/K. Can be null.
+      * @return The compressibility factor of the phase.
+      */
+     public double calculateLnFugacityCoefficients(ComponentSet components, double temperature, double pressure, double[] moleFractions, boolean isLiquid,
+                                                  double previousZ, double[] lnFugacityCoefficients, double[][] dlnPhidn, double[] dlnPhidT) throws NotFlashable {
+
+          CubicEOSParameters parameters = calculateParameters(components, temperature);
+
+          return calculatePhase(parameters, temperature, pressure, moleFractions, isLiquid, previousZ, lnFugacityCoefficients, dlnPhidn, dlnPhidT, null);
+     }
+
+
+     /**
+      * The pure-component parameters only depend on the species and the temperature, so they are only recalculated when one of those changes.
+      * Each thread keeps the parameters of its last call. A new temperature is recalculated in place, and only new species build new parameters,
+      * so a thread flashing the same feed never allocates any.
+      * @param components The species in the flash tank.
+      * @param temperature The temperature of the flash tank in K.
+      * @return The parameters for the given species and temperature. Only valid until the next call on the same thread.
+      */
+     private CubicEOSParameters calculateParameters(ComponentSet components, double temperature) {
+          CubicEOSParameters parameters = this.threadParameters.get();
+
+          if (parameters == null || !parameters.matchesSpecies(components)) {
+               parameters = new CubicEOSParameters(components, temperature, this.kijTable, this.omegaA, this.omegaB, this.alphaFunction);
+               this.threadParameters.set(parameters);
+          }
+          else if (parameters.getTemperature() != temperature)
+               parameters.setTemperature(temperature);
+
+          return parameters;
+     }
+
+
+//-------------------------------------------The Phase Kernel--------------------------------------------
+
+
+     /**
+      * Everything for one phase: the mixing rule, Z and ln(phi i), with optional analytic derivatives.
+      * Nothing is allocated. The output arrays double as scratch space:
+      * lnFugacityCoefficients holds Si = sum(xj*alphaAij) until the very end, and dlnPhidT holds dSi/dT until it is overwritten.
+      * The derivatives of ln(phi i) = BBi(Z-1) - ln(Z-B) - A/((delta1-delta2)B)*(AAi-BBi)*ln((Z+delta1*B)/(Z+delta2*B))
+      * come from every variable (T, P or nj) changing A, B, AAi and BBi, and Z following from the cubic:
+      * dZ = -(dF/dA*dA + dF/dB*dB)/(dF/dZ).
+      * The mole number derivatives are for one mole of phase, using
+      * d(alphaA)/dnj = 2(Sj-alphaA), d(Si)/dnj = alphaAij-Si and d(b)/dnj = bj-b.
+      * @param previousZ The Z of this phase from the last call, used to warm-start the cubic. 0 if there isn't one.
+      * @return The compressibility factor of the phase.
+      */
+     private double calculatePhase(CubicEOSParameters parameters, double temperature, double pressure, double[] moleFractions, boolean isLiquid, double previousZ,
+                                   double[] lnFugacityCoefficients, double[][] dlnPhidn, double[] dlnPhidT, double[] dlnPhidP) throws NotFlashable {
+
+          int n = moleFractions.length;
+          double[] alphaAiSums = lnFugacityCoefficients;
+
+          calculateAlphaAiSums(parameters, moleFractions, alphaAiSums);
+          double alphaAMixture = calculateAlphaA(moleFractions, alphaAiSums);
+          double bMixture = calculatebMixture(parameters, moleFractions);
+
+          double A = alphaAMixture*pressure/(R*R*temperature*temperature);
+          double B = bMixture*pressure/(R*temperature);
+
+          //F(Z,A,B) = Z^3 + c2*Z^2 + c1*Z + c0
+          double c2 = -(1 + B - this.u*B);
+          double c1 = A + this.w*B*B - this.u*B - this.u*B*B;
+          double c0 = -(A*B + this.w*B*B + this.w*B*B*B);
+          double Z = calculateZ(c2, c1, c0, B, isLiquid, previousZ);
+
+          //These terms are the same for every species
+          double logZB = Math.log(Z-B);
+          double logRatio = Math.log((Z+this.delta1*B)/(Z+this.delta2*B));
+          double AoverDB = A/((this.delta1-this.delta2)*B);
+
+          if (dlnPhidn != null || dlnPhidT != null || dlnPhidP != null) {
+               //Partial derivatives of the cubic
+               double dFdZ = 3*Z*Z + 2*c2*Z + c1;
+               double dFdA = Z-B;
+               double dFdB = (this.u-1)*Z*Z + (2*this.w*B - this.u - 2*this.u*B)*Z - (A + 2*this.w*B + 3*this.w*B*B);
+
+               //Pressure: A and B are proportional to P, nothing else changes
+               if (dlnPhidP != null) {
+                    double dA = A/pressure;
+                    double dB = B/pressure;
+                    double dZ = -(dFdA*dA + dFdB*dB)/dFdZ;
+                    double dLogRatio = (dZ+this.delta1*dB)/(Z+this.delta1*B) - (dZ+this.delta2*dB)/(Z+this.delta2*B);
+                    double dAoverDB = (dA*B - A*dB)/((this.delta1-this.delta2)*B*B);
+
+                    for (int i=0; i<n; i++) {
+                         double BB = parameters.getbPure(i)/bMixture;
+                         double AAminusBB = 2*alphaAiSums[i]/alphaAMixture - BB;
+
+                         dlnPhidP[i] = BB*dZ - (dZ-dB)/(Z-B) - dAoverDB*AAminusBB*logRatio - AoverDB*AAminusBB*dLogRatio;
+                    }
+               }
+
+               //Temperature: alphaA changes through alpha(T), and A and B have 1/T^2 and 1/T factors
+               if (dlnPhidT != null) {
+                    double[] dAlphaAiSums = dlnPhidT;
+                    calculatedAlphaAiSumsdT(parameters, moleFractions, dAlphaAiSums);
+                    double dAlphaAMixture = calculateAlphaA(moleFractions, dAlphaAiSums);
+
+                    double dA = dAlphaAMixture*pressure/(R*R*temperature*temperature) - 2*A/temperature;
+                    double dB = -B/temperature;
+                    double dZ = -(dFdA*dA + dFdB*dB)/dFdZ;
+                    double dLogRatio = (dZ+this.delta1*dB)/(Z+this.delta1*B) - (dZ+this.delta2*dB)/(Z+this.delta2*B);
+                    double dAoverDB = (dA*B - A*dB)/((this.delta1-this.delta2)*B*B);
+
+                    for (int i=0; i<n; i++) {
+                         double BB = parameters.getbPure(i)/bMixture;
+                         double AAminusBB = 2*alphaAiSums[i]/alphaAMixture - BB;
+                         double dAA = 2*(dAlphaAiSums[i]*alphaAMixture - alphaAiSums[i]*dAlphaAMixture)/(alphaAMixture*alphaAMixture);
+
+                         dlnPhidT[i] = BB*dZ - (dZ-dB)/(Z-B) - dAoverDB*AAminusBB*logRatio
+                              - AoverDB*dAA*logRatio - AoverDB*AAminusBB*dLogRatio;
+                    }
+               }
+
+               //Mole numbers
+               if (dlnPhidn != null) {
+                    for (int j=0; j<n; j++) {
+                         double BBj = parameters.getbPure(j)/bMixture;
+                         double dA = 2*A*(alphaAiSums[j]/alphaAMixture - 1);
+                         double dB = B*(BBj - 1);
+                         double dZ = -(dFdA*dA + dFdB*dB)/dFdZ;
+                         double dLogRatio = (dZ+this.delta1*dB)/(Z+this.delta1*B) - (dZ+this.delta2*dB)/(Z+this.delta2*B);
+                         double dAoverDB = (dA*B - A*dB)/((this.delta1-this.delta2)*B*B);
+
+                         for (int i=0; i<n; i++) {
+                              double BB = parameters.getbPure(i)/bMixture;
+                              double AAminusBB = 2*alphaAiSums[i]/alphaAMixture - BB;
+                              double dBB = -BB*(BBj - 1);
+                              double dAA = 2*(parameters.getAlphaAij(i, j) + alphaAiSums[i])/alphaAMixture
+                                   - 4*alphaAiSums[i]*alphaAiSums[j]/(alphaAMixture*alphaAMixture);
+
+                              dlnPhidn[i][j] = dBB*(Z-1) + BB*dZ - (dZ-dB)/(Z-B) - dAoverDB*AAminusBB*logRatio
+                                   - AoverDB*(dAA-dBB)*logRatio - AoverDB*AAminusBB*dLogRatio;
+                         }
+                    }
+               }
+          }
+
+          //Last, since this overwrites the sums
+          for (int i=0; i<n; i++) {
+               double BB = parameters.getbPure(i)/bMixture;
+               double AA = 2*alphaAiSums[i]/alphaAMixture;
+
+               lnFugacityCoefficients[i] = BB*(Z-1) - logZB - AoverDB*(AA-BB)*logRatio;
+          }
+
+          return Z;
+     }
+
+
+//-------------------------------------------The Mixing Rule--------------------------------------------
+
+      /**
+      * Need to calculate an 'alphaA' term for both liquid and vapour phases.
+      * @param moleFractions The species moleFractions will be from either the liquid phase (xi) or the vapour phase (yi).
+      * @param alphaAiSums The sum(xj*alphaAij) for each species in the same phase.
+      * Individual values of alphaA are combined to determine the overall alphaA parameter.
+      * @return The value of alphaA for either the liquid or vapour phase. Dependent on all species in question.
+      * */
+     private double calculateAlphaA(double[] moleFractions, double[] alphaAiSums) {
+          //Equation 11.4a, sum(xi*xj*alphaAij) over i and j
+          double alphaA = 0;
+          for (int i =0; i<moleFractions.length;i++)
+               alphaA += moleFractions[i]*alphaAiSums[i];
+
+          return alphaA;
+     }
+
+     /**
+      * The inner sum of the mixing rule. It's needed by both alphaA and AA, so it is only calculated once per phase.
+      * If every kij is 0, alphaAij = sqrt(alphaAi)*sqrt(alphaAj), so the sum is sqrt(alphaAi)*sum(xj*sqrt(alphaAj)).
+      * That makes the whole phase O(n) instead of O(n^2). The full matrix is only used when there are interactions.
+      * @param moleFractions The species moleFractions will be from either the liquid phase (xi) or the vapour phase (yi).
+      * @param alphaAiSums Filled with sum(xj*alphaAij) for each species i.
+      **/
+     private void calculateAlphaAiSums(CubicEOSParameters parameters, double[] moleFractions, double[] alphaAiSums) {
+
+          if (!parameters.getHasInteractions()) {
+               double sqrtAlphaAMixture = 0;
+               for (int j = 0; j<moleFractions.length; j++)
+                    sqrtAlphaAMixture += moleFractions[j]*parameters.getSqrtAlphaA(j);
+
+               for (int i = 0; i<moleFractions.length; i++)
+                    alphaAiSums[i] = parameters.getSqrtAlphaA(i)*sqrtAlphaAMixture;
+
+               return;
+          }
+
+          for (int i = 0; i<moleFractions.length; i++) {
+               double alphaAijSum = 0;
+               for (int j = 0; j<moleFractions.length; j++)
+                    alphaAijSum += moleFractions[j]*parameters.getAlphaAij(i, j);
+
+               alphaAiSums[i] = alphaAijSum;
+          }
+     }
+
+     /**
+      * The temperature derivative of the inner sum of the mixing rule, using the same O(n) shortcut when every kij is 0.
+      * @param moleFractions The species moleFractions will be from either the liquid phase (xi) or the vapour phase (yi).
+      * @param dAlphaAiSums Filled with sum(xj*d(alphaAij)/dT) for each species i.
+      **/
+     private void calculatedAlphaAiSumsdT(CubicEOSParameters parameters, double[] moleFractions, double[] dAlphaAiSums) {
+
+          if (!parameters.getHasInteractions()) {
+               double sqrtAlphaAMixture = 0;
+               double dSqrtAlphaAMixture = 0;
+               for (int j = 0; j<moleFractions.length; j++) {
+                    sqrtAlphaAMixture += moleFractions[j]*parameters.getSqrtAlphaA(j);
+                    dSqrtAlphaAMixture += moleFractions[j]*parameters.getdSqrtAlphaAdT(j);
+               }
+
+               for (int i = 0; i<moleFractions.length; i++)
+                    dAlphaAiSums[i] = parameters.getdSqrtAlphaAdT(i)*sqrtAlphaAMixture + parameters.getSqrtAlphaA(i)*dSqrtAlphaAMixture;
+
+               return;
+          }
+
+          for (int i = 0; i<moleFractions.length; i++) {
+               double dAlphaAijSum = 0;
+               for (int j = 0; j<moleFractions.length; j++)
+                    dAlphaAijSum += moleFractions[j]*parameters.getdAlphaAijdT(i, j);
+
+               dAlphaAiSums[i] = dAlphaAijSum;
+          }
+     }
+
+     /**
+      * The 'B' term is dependent on the 'b' term, which is based on the mixture of species.
+      * @param moleFractions The species moleFractions will be from either the liquid phase (xi) or the vapour phase (yi).
+      * @return The value of b for either the liquid or vapour phase. Dependent on all species in question.
+      * */
+     private double calculatebMixture(CubicEOSParameters parameters, double[] moleFractions) {
+
+          double bMix=0;
+          for (int i=0;i<moleFractions.length;i++) {
+               double zi = moleFractions[i]; //Here zi is not the overall mole fraction, but that of the phase (xi or yi)
+               double bi = parameters.getbPure(i);
+
+               bMix += zi*bi;
+          }
+
+          return bMix;
+     }
+
+
+//---------------------------------------------------Calculating Z------------------------------------------
+
+     /**
+      * Solves the cubic equation of state for the compressibility factor.
+      * When the cubic only has one real root (one phase, or above the critical point), both phases use it.
+      * @param c2 The coefficient of Z^2.
+      * @param c1 The coefficient of Z.
+      * @param c0 The constant term.
+      * @param B The B value of the phase. Z has to be larger than B to be physical.
+      * @param isLiquid true for the smallest root, false for the largest.
+      * @param previousZ The root from the last call, refined with Newton's method instead of solving from scratch. 0 if there isn't one.
+      * @return The compressibility factor of the phase.
+      */
+     private double calculateZ(double c2, double c1, double c0, double B, boolean isLiquid, double previousZ) throws NotFlashable {
+
+       double Z = isLiquid ? CubicEquationSolver.smallestRoot(c2, c1, c0, previousZ) : CubicEquationSolver.largestRoot(c2, c1, c0, previousZ);
+
+       if (!(Z > B))
+            throw new NotFlashable("System not solved...\nNo physical root found for the cubic EoS.");
+
+       return Z;
+     }
+
+
+}//End of CubicEOSModel class
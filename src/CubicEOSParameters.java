@@ -0,0 +1,220 @@
+/**
+ * The pure-component parameters (a, b and alpha) of a cubic equation of state for a set of species at one temperature,
+ * along with the cross terms sqrt(alphaAi*alphaAj)*(1-kij) used by the mixing rule.
+ * None of these depend on composition, so they are calculated once and shared by both phases
+ * and every fugacity coefficient. The kij only enter through the (1-kij)*sqrt(ai*aj) matrix,
+ * which is built once for a set of species and reused at every temperature.
+ * When every kij is 0 the cross terms factor into sqrt(alphaAi)*sqrt(alphaAj), and neither matrix is built.
+ * Every array is allocated by the constructor. A new temperature only overwrites the alpha terms in place,
+ * so the parameters must only be used by one thread.
+ */
+public class CubicEOSParameters
+{
+
+
+     private double temperature;
+     private int[] idNums;  //identifies the component set the parameters were built for
+
+     private double[] aPure;
+     private double[] bPure;
+     private double[] criticalTemperatures;
+     private double[] accentricFactors;
+     private AlphaFunction alphaFunction;
+     private double[] sqrtaPure;
+     private boolean hasInteractions;  //false if every kij is 0
+     private double[][] aij;  //sqrt(ai*aj)*(1-kij), null if there are no interactions
+
+     private double[] sqrtAlphaPure;
+     private double[] alphaA;  //alpha*a for each species
+     private double[] sqrtAlphaA;  //sqrt(alpha*a) for each species
+     private double[] dSqrtAlphaPuredT;  //d(sqrt(alpha))/dT for each species
+     private double[][] alphaAij;  //sqrt(alphaAi*alphaAj)*(1-kij)
+
+
+//---------------------------------------------CONSTRUCTORS------------------------------------------------------------
+
+
+     /**
+      * Calculates the parameters of every species at the given temperature.
+      * @param components The species in the system, in the same order as the mole fraction arrays.
+      * @param temperature The temperature in K.
+      * @param kijTable The binary interaction parameters. If null, every kij is 0.
+      * @param omegaA The constant in a = omegaA*R^2*Tc^2/Pc.
+      * @param omegaB The constant in b = omegaB*R*Tc/Pc.
+      * @param alphaFunction The temperature dependence of a.
+      */
+     public CubicEOSParameters(ComponentSet components, double temperature, BinaryInteractionTable kijTable, 
+                               double omegaA, double omegaB, AlphaFunction alphaFunction)
+     {
+          int n = components.getNumComponents();
+
+          this.idNums = new int[n];
+          this.aPure = new double[n];
+          this.bPure = new double[n];
+          this.criticalTemperatures = new double[n];
+          this.accentricFactors = new double[n];
+          this.alphaFunction = alphaFunction;
+          this.sqrtaPure = new double[n];
+
+          for (int i=0; i<n; i++) {
+               double criticalTemperature = components.getCriticalTemperature(i);
+               double criticalPressure = components.getCriticalPressure(i);
+
+               this.idNums[i] = components.getIdNum(i);
+               this.aPure[i] = omegaA*CubicEOSModel.R*CubicEOSModel.R*criticalTemperature*criticalTemperature/criticalPressure;
+               this.bPure[i] = omegaB*CubicEOSModel.R*criticalTemperature/criticalPressure;
+               this.criticalTemperatures[i] = criticalTemperature;
+               this.accentricFactors[i] = components.getAccentricFactor(i);
+               this.sqrtaPure[i] = Math.sqrt(this.aPure[i]);
+          }
+
+          this.hasInteractions = false;
+          for (int i=0; kijTable != null && i<n; i++) {
+               for (int j=0; j<i; j++) {
+                    if (kijTable.getKij(this.idNums[i], this.idNums[j]) != 0.0)
+                         this.hasInteractions = true;
+               }
+          }
+
+          //(1-kij)*sqrt(ai*aj) doesn't depend on temperature, so it is only calculated once for the species
+          if (this.hasInteractions) {
+               this.aij = new double[n][n];
+               for (int i=0; i<n; i++) {
+                    for (int j=0; j<=i; j++) {
+                         double kij = (i == j) ? 0.0 : kijTable.getKij(this.idNums[i], this.idNums[j]);
+
+                         this.aij[i][j] = (1-kij)*this.sqrtaPure[i]*this.sqrtaPure[j];
+                         this.aij[j][i] = this.aij[i][j];
+                    }
+               }
+          }
+
+          this.sqrtAlphaPure = new double[n];
+          this.alphaA = new double[n];
+          this.sqrtAlphaA = new double[n];
+          this.dSqrtAlphaPuredT = new double[n];
+          if (this.hasInteractions)
+               this.alphaAij = new double[n][n];
+
+          setTemperature(temperature);
+     }//End of constructor
+
+
+//-------------------------------------------------METHODS-------------------------------------------------------------
+
+
+     /**
+      * Recalculates alpha, alpha*a and the alphaAij cross terms at a new temperature, in the arrays they are already in.
+      * sqrt(alphaAi*alphaAj)*(1-kij) = sqrt(alphai)*sqrt(alphaj)*aij, so no square roots are needed in the double loop.
+      * The double loop is skipped entirely if there are no interactions.
+      * @param temperature The temperature in K.
+      */
+     public void setTemperature(double temperature)
+     {
+          int n = this.idNums.length;
+
+          this.temperature = temperature;
+
+          for (int i=0; i<n; i++) {
+               this.sqrtAlphaPure[i] = this.alphaFunction.calculateSqrtAlpha(temperature, this.criticalTemperatures[i], this.accentricFactors[i]);
+               this.dSqrtAlphaPuredT[i] = this.alphaFunction.calculatedSqrtAlphadT(temperature, this.criticalTemperatures[i], this.accentricFactors[i]);
+               this.alphaA[i] = this.sqrtAlphaPure[i]*this.sqrtAlphaPure[i]*this.aPure[i];
+               this.sqrtAlphaA[i] = this.sqrtAlphaPure[i]*this.sqrtaPure[i];
+          }
+
+          if (!this.hasInteractions)
+               return;
+
+          for (int i=0; i<n; i++) {
+               for (int j=0; j<=i; j++) {
+                    this.alphaAij[i][j] = this.sqrtAlphaPure[i]*this.sqrtAlphaPure[j]*this.aij[i][j];
+                    this.alphaAij[j][i] = this.alphaAij[i][j];
+               }
+          }
+     }
+
+
+     /**
+      * Checks if these parameters were built for the same species (in the same order).
+      * @param components The species in the system.
+      * @return true if the temperature-independent parameters can be reused
+      */
+     public boolean matchesSpecies(ComponentSet components)
+     {
+          if (this.idNums.length != components.getNumComponents())
+               return false;
+
+          for (int i=0; i<components.getNumComponents(); i++) {
+               if (this.idNums[i] != components.getIdNum(i))
+                    return false;
+          }
+
+          return true;
+     }
+
+
+//------------------------------------------HOUSEKEEPING METHODS--------------------------------------------------------
+
+
+     public double getTemperature() {
+          return this.temperature;
+     }
+
+     public int getNumSpecies() {
+          return this.idNums.length;
+     }
+
+     public double getaPure(int i) {
+          return this.aPure[i];
+     }
+
+     public double getbPure(int i) {
+          return this.bPure[i];
+     }
+
+     public double getAlphaPure(int i) {
+          return this.sqrtAlphaPure[i]*this.sqrtAlphaPure[i];
+     }
+
+     public double getAlphaA(int i) {
+          return this.alphaA[i];
+     }
+
+     public double getSqrtAlphaA(int i) {
+          return this.sqrtAlphaA[i];
+     }
+
+     public double getAlphaAij(int i, int j) {
+          if (!this.hasInteractions)
+               return this.sqrtAlphaA[i]*this.sqrtAlphaA[j];
+
+          return this.alphaAij[i][j];
+     }
+
+     /**
+      * @param i The index of the species.
+      * @return d(sqrt(alphaAi))/dT
+      */
+     public double getdSqrtAlphaAdT(int i) {
+          return this.dSqrtAlphaPuredT[i]*this.sqrtaPure[i];
+     }
+
+     /**
+      * @param i The index of the first species.
+      * @param j The index of the second species.
+      * @return d(alphaAij)/dT
+      */
+     public double getdAlphaAijdT(int i, int j) {
+          double dSqrtAlphaProduct = this.dSqrtAlphaPuredT[i]*this.sqrtAlphaPure[j] + this.sqrtAlphaPure[i]*this.dSqrtAlphaPuredT[j];
+
+          if (!this.hasInteractions)
+               return dSqrtAlphaProduct*this.sqrtaPure[i]*this.sqrtaPure[j];
+
+          return dSqrtAlphaProduct*this.aij[i][j];
+     }
+
+     public boolean getHasInteractions() {
+          return this.hasInteractions;
+     }
+
+}//End of CubicEOSParameters class
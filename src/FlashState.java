@@ -0,0 +1,413 @@
+import numericMethods.SolverWorkspace;
+import customExceptions.NotFlashable;
+
+/**
+ * The state of an isothermal flash as plain arrays: the feed (zi), the K values, the phase compositions (xi and yi) and V/F.
+ * The flash models iterate on a FlashState and only build the outlet streams from it once, with toFlashTank, after it has converged.
+ * A FlashState is made once for a flash and reused for every temperature and every iteration, so nothing is allocated while it runs.
+ * Each FlashState has its own SolverWorkspace, allocated when it is made, so any number of them can be in use at once.
+ * A FlashState must only be used by one thread at a time.
+ * The array getters return the arrays the state works on, not copies, so they change with the next split or solve
+ * and anything that has to be kept must be copied out.
+ */
+public class FlashState
+{
+
+
+     private static final int ACCELERATION_INTERVAL = 5;  //successive substitution iterations between accelerations
+     private static final double MAX_EIGENVALUE = 0.99;  //above this, the extrapolation is too long to trust
+
+     private ComponentSet components;
+     private double[] moleFractionsFeed;
+     private double feedFlow;
+     private double temperature;
+     private double pressure;
+
+     private SolverWorkspace workspace;
+     private double[] ki;
+     private double[] kiOld;
+     private double[] xiArray;
+     private double[] yiArray;
+     private double[] lnPhiLiquid;
+     private double[] lnPhiVapour;
+     private double[] step;  //the change in ln(Ki) of the last iteration
+     private double[] stepOld;  //and the one before it
+     private double[] kiUnaccelerated;  //the plain successive substitution K values, in case an acceleration is rejected
+     private double[] zRoots;  //the last liquid and vapour Z roots, so the cubic EoS can be warm started. Reset to 0 by each solve
+     private double VFRatio;
+     private double vapourFlow;
+
+
+//---------------------------------------------CONSTRUCTORS------------------------------------------------------------
+
+
+     /**
+      * Allocates the arrays of the flash, once.
+      * @param components The species in the feed.
+      * @param moleFractionsFeed The feed mole fractions (zi). Not copied, and must not change while the state is used.
+      * @param feedFlow The total molar flow of the feed in mol/s.
+      * @param temperature The temperature of the flash in K.
+      * @param pressure The pressure of the flash in Pa.
+      */
+     public FlashState(ComponentSet components, double[] moleFractionsFeed, double feedFlow, double temperature, double pressure)
+     {
+          SolverWorkspace workspace = new SolverWorkspace(components.getNumComponents());
+          this.workspace = workspace;
+
+          this.components = components;
+          this.moleFractionsFeed = moleFractionsFeed;
+          this.feedFlow = feedFlow;
+          this.temperature = temperature;
+          this.pressure = pressure;
+          this.ki = workspace.getKi();
+          this.kiOld = workspace.getKiOld();
+          this.xiArray = workspace.getLiquidMoleFractions();
+          this.yiArray = workspace.getVapourMoleFractions();
+          this.lnPhiLiquid = workspace.getLiquidLnFugacityCoefficients();
+          this.lnPhiVapour = workspace.getVapourLnFugacityCoefficients();
+          this.step = workspace.getStep();
+          this.stepOld = workspace.getStepOld();
+          this.kiUnaccelerated = workspace.getScratch();
+          this.zRoots = workspace.getZRoots();
+     }
+
+
+//-------------------------------------------------METHODS-------------------------------------------------------------
+
+
+     /**
+      * Finds V/F from the Rachford-Rice equation with the current K values, then yi from the K values and xi from the mass balance.
+      */
+     public void split()
+     {
+          this.VFRatio = RachfordRice.solve(this.moleFractionsFeed, this.ki);
+          this.vapourFlow = this.feedFlow * this.VFRatio;
+          double liquidFlow = this.feedFlow - this.vapourFlow;
+
+          calculateYiArray();
+          calculateXiArray(liquidFlow);
+     }
+
+
+     /**
+      * Finds ln(phi) of both phases at the current compositions, warm starting the EoS from the last Z roots.
+      * @param vleModel The model that gives ln(phi).
+      * @throws NotFlashable if the model can't be evaluated.
+      */
+     public void calculateLnFugacityCoefficients(VLEModel vleModel) throws NotFlashable
+     {
+          this.zRoots[0] = vleModel.calculateLnFugacityCoefficients(this.components, this.temperature, this.pressure, this.xiArray,
+                                                                    true, this.zRoots[0], this.lnPhiLiquid);
+          this.zRoots[1] = vleModel.calculateLnFugacityCoefficients(this.components, this.temperature, this.pressure, this.yiArray,
+                                                                    false, this.zRoots[1], this.lnPhiVapour);
+     }
+
+
+     /**
+      * The same as above, along with the derivatives of ln(phi) that aren't null.
+      * @param dlnPhiLiquiddn Filled with n*d(ln phi i)/d(nj) of the liquid. Can be null.
+      * @param dlnPhiVapourdn Filled with n*d(ln phi i)/d(nj) of the vapour. Can be null.
+      * @param dlnPhiLiquiddT Filled with d(ln phi i)/dT of the liquid. Can be null.
+      * @param dlnPhiVapourdT Filled with d(ln phi i)/dT of the vapour. Can be null.
+      * @throws NotFlashable if the model can't be evaluated.
+      */
+     public void calculateLnFugacityCoefficients(VLEModel vleModel, double[][] dlnPhiLiquiddn, double[][] dlnPhiVapourdn,
+                                                 double[] dlnPhiLiquiddT, double[] dlnPhiVapourdT) throws NotFlashable
+     {
+          this.zRoots[0] = vleModel.calculateLnFugacityCoefficients(this.components, this.temperature, this.pressure, this.xiArray,
+                                                                    true, this.zRoots[0], this.lnPhiLiquid, dlnPhiLiquiddn, dlnPhiLiquiddT);
+          this.zRoots[1] = vleModel.calculateLnFugacityCoefficients(this.components, this.temperature, this.pressure, this.yiArray,
+                                                                    false, this.zRoots[1], this.lnPhiVapour, dlnPhiVapourdn, dlnPhiVapourdT);
+     }
+
+
+     /**
+      * One step of successive substitution: new K values from ln(phi) of the phases of the last split.
+      * The K values that were used for the split are kept, see getPreviousKi.
+      * @param vleModel The model that gives ln(phi).
+      * @return The largest change in any K value.
+      * @throws NotFlashable if the model can't be evaluated.
+      */
+     public double substitute(VLEModel vleModel) throws NotFlashable
+     {
+          calculateLnFugacityCoefficients(vleModel);
+          double[] temp = this.kiOld;
+          this.kiOld = this.ki;
+          this.ki = temp;
+
+          double maxDifference = 0.0;
+          for(int i=0; i<this.ki.length; i++) {
+               if (this.components.getIsCondensable(i))
+                    this.ki[i] = Math.exp(this.lnPhiLiquid[i] - this.lnPhiVapour[i]);
+               else
+                    this.ki[i] = VLEModel.NON_CONDENSABLE_K;
+
+               double difference = Math.abs(this.kiOld[i]-this.ki[i]);
+               if(difference >= maxDifference)
+                    maxDifference = difference;
+          }
+
+          return maxDifference;
+     }
+
+
+     /**
+      * Plain successive substitution from the current K values: split, then new K values from the model, until the K values settle.
+      * Leaves the split of the last K values that were used, so the K values and the split are one iteration apart at most.
+      * @param vleModel The model that gives the K values.
+      * @param tolerance The largest change in any K value accepted as converged.
+      * @param maxIt The iteration count it stops at.
+      * @throws NotFlashable if the model can't be evaluated.
+      */
+     public void solveBySubstitution(VLEModel vleModel, double tolerance, int maxIt) throws NotFlashable
+     {
+          double maxDifference = 0.0;
+          int counter = 1;
+          this.zRoots[0] = 0;
+          this.zRoots[1] = 0;
+
+          do {
+               counter++;
+               split();
+
+               //Recalculate the K values and compare
+               maxDifference = substitute(vleModel);
+
+          } while((maxDifference>tolerance) && (counter<maxIt));
+     }
+
+
+     /**
+      * Successive substitution on ln(Ki), accelerated every few iterations by extrapolating along the dominant eigenvalue
+      * of the iteration (GDEM). An accelerated step is only kept if it lowers the Gibbs energy of the two phases.
+      * Ends the same way as solveBySubstitution.
+      * @param vleModel The model that gives ln(phi).
+      * @param tolerance The largest change in any K value accepted as converged.
+      * @param maxIt The iteration count it stops at.
+      * @throws NotFlashable if the model can't be evaluated.
+      */
+     public void solveByAcceleratedSubstitution(VLEModel vleModel, double tolerance, int maxIt) throws NotFlashable
+     {
+          double maxDifference = 0.0;
+          int counter = 1;
+          this.zRoots[0] = 0;
+          this.zRoots[1] = 0;
+
+          double gibbsEnergyOld = Double.POSITIVE_INFINITY;
+          boolean accelerated = false;
+          int iterationsSinceAcceleration = 0;
+          do {
+               counter++;
+               split();
+
+               //Fugacity coefficients of each phase, which give both the new K values and the Gibbs energy
+               calculateLnFugacityCoefficients(vleModel);
+               double gibbsEnergy = calculateGibbsEnergy();
+
+               if (accelerated && !(gibbsEnergy <= gibbsEnergyOld)) {
+                    //The acceleration overshot, go back to where successive substitution would have been
+                    System.arraycopy(this.kiUnaccelerated, 0, this.ki, 0, this.ki.length);
+                    accelerated = false;
+                    continue;
+               }
+               accelerated = false;
+               gibbsEnergyOld = gibbsEnergy;
+
+               //Recalculate the K values and compare
+               double[] temp = this.kiOld;
+               this.kiOld = this.ki;
+               this.ki = temp;
+               temp = this.stepOld;
+               this.stepOld = this.step;
+               this.step = temp;
+
+               maxDifference = 0.0;
+               for(int i=0; i<this.ki.length; i++) {
+                    if (this.components.getIsCondensable(i)) {
+                         this.step[i] = this.lnPhiLiquid[i] - this.lnPhiVapour[i] - Math.log(this.kiOld[i]);
+                         this.ki[i] = this.kiOld[i]*Math.exp(this.step[i]);
+                    }
+                    else {
+                         this.step[i] = 0;
+                         this.ki[i] = VLEModel.NON_CONDENSABLE_K;
+                    }
+
+                    double difference = Math.abs(this.kiOld[i]-this.ki[i]);
+                    if(difference >= maxDifference)
+                         maxDifference = difference;
+               }
+
+               iterationsSinceAcceleration++;
+               if (iterationsSinceAcceleration >= ACCELERATION_INTERVAL && maxDifference > tolerance) {
+                    iterationsSinceAcceleration = 0;
+
+                    //The steps shrink by the dominant eigenvalue each iteration, so the rest of them add up to step*lambda/(1-lambda)
+                    double stepProduct = 0;
+                    double stepOldSquared = 0;
+                    for (int i=0; i<this.ki.length; i++) {
+                         stepProduct += this.step[i]*this.stepOld[i];
+                         stepOldSquared += this.stepOld[i]*this.stepOld[i];
+                    }
+                    double lambda = stepProduct/stepOldSquared;
+
+                    if (lambda > 0 && lambda < MAX_EIGENVALUE) {
+                         System.arraycopy(this.ki, 0, this.kiUnaccelerated, 0, this.ki.length);
+                         double factor = lambda/(1-lambda);
+                         for (int i=0; i<this.ki.length; i++) {
+                              if (this.components.getIsCondensable(i))
+                                   this.ki[i] *= Math.exp(factor*this.step[i]);
+                         }
+                         accelerated = true;
+                    }
+               }
+
+          } while((maxDifference>tolerance) && (counter<maxIt));
+     }
+
+
+     /**
+      * Builds the outlet streams from the split, the only time a flash makes Stream objects.
+      * @param flashTank The flash tank being solved, with outlet streams of the right species.
+      * @return The flash tank at this temperature, with the outlet flows and compositions of the split.
+      */
+     public FlashTank toFlashTank(FlashTank flashTank)
+     {
+          FlashTank solved = (flashTank.getFlashTemp() == this.temperature) ? flashTank : flashTank.withFlashTemp(this.temperature);
+          double liquidFlow = this.feedFlow - this.vapourFlow;
+
+          return solved.withVapourStream(solved.getVapourStream().withComposition(this.vapourFlow, this.yiArray))
+                       .withLiquidStream(solved.getLiquidStream().withComposition(liquidFlow, this.xiArray));
+     }
+
+
+     /**
+      * The Gibbs energy of the two phases per mole of feed, divided by RT and without the terms that don't change with the split:
+      * G = (1-psi)*sum(xi*(ln(xi) + ln(phi i liquid))) + psi*sum(yi*(ln(yi) + ln(phi i vapour)))
+      * Successive substitution always lowers it, so an accelerated step that raises it has overshot.
+      * @return G/RT.
+      */
+     private double calculateGibbsEnergy()
+     {
+          double liquidSum = 0;
+          double vapourSum = 0;
+          for (int i=0; i<this.xiArray.length; i++) {
+               if (this.xiArray[i] > 0)
+                    liquidSum += this.xiArray[i]*(Math.log(this.xiArray[i]) + this.lnPhiLiquid[i]);
+               if (this.yiArray[i] > 0)
+                    vapourSum += this.yiArray[i]*(Math.log(this.yiArray[i]) + this.lnPhiVapour[i]);
+          }
+
+          return (1-this.VFRatio)*liquidSum + this.VFRatio*vapourSum;
+     }
+
+
+     /**
+      * Only called after V has been calculated
+      */
+     private void calculateYiArray() {
+
+          //Calculate yis
+          for (int i=0; i<this.components.getNumComponents();i++)
+          {
+               if(!this.components.getIsCondensable(i)) { //non-condensable
+                    this.yiArray[i] = this.feedFlow * this.moleFractionsFeed[i] / this.vapourFlow;
+               }
+               else {//condensable
+                    this.yiArray[i] = this.feedFlow * this.moleFractionsFeed[i]* this.ki[i]
+                         / (this.feedFlow + this.vapourFlow*(this.ki[i]-1));
+               }
+          }
+     }
+
+
+     /**
+      * Only called after V and the yi values have been calculated
+      * @param liquidFlow The total molar flow of the liquid.
+      */
+     private void calculateXiArray(double liquidFlow) {
+
+          //All vapour (at or above the dew point). The mass balance is 0/0, so use the first drop of liquid in equilibrium with the vapour
+          if(liquidFlow == 0) {
+               for(int i=0; i<this.xiArray.length; i++)
+                    this.xiArray[i] = this.yiArray[i]/this.ki[i];
+
+               return;
+          }
+
+          for(int i=0; i<this.xiArray.length; i++) {
+               this.xiArray[i] = (this.feedFlow * this.moleFractionsFeed[i] - this.vapourFlow * this.yiArray[i]) / liquidFlow;
+          }
+     }
+
+
+//------------------------------------------HOUSEKEEPING METHODS--------------------------------------------------------
+
+
+     /**
+      * @return The workspace the state's arrays come from, for the solvers that work on the state.
+      */
+     public SolverWorkspace getWorkspace() {
+          return this.workspace;
+     }
+
+     public double getTemperature() {
+          return this.temperature;
+     }
+     public void setTemperature(double temperature) {
+          this.temperature = temperature;
+     }
+     public double getPressure() {
+          return this.pressure;
+     }
+     public double getFeedFlow() {
+          return this.feedFlow;
+     }
+     /**
+      * @return V/F of the last split.
+      */
+     public double getVFRatio() {
+          return this.VFRatio;
+     }
+     public double getVapourFlow() {
+          return this.vapourFlow;
+     }
+     /**
+      * For a flash that finds xi and yi some other way, in the arrays of this state, so toFlashTank uses its split.
+      * @param vapourFlow The total molar flow of the vapour in mol/s.
+      */
+     public void setVapourFlow(double vapourFlow) {
+          this.vapourFlow = vapourFlow;
+          this.VFRatio = vapourFlow/this.feedFlow;
+     }
+     public double[] getKi() {
+          return this.ki;
+     }
+     /**
+      * @param ki The K values to start from, copied in.
+      */
+     public void setKi(double[] ki) {
+          System.arraycopy(ki, 0, this.ki, 0, this.ki.length);
+     }
+     public void setKi(int i, double ki) {
+          this.ki[i] = ki;
+     }
+     /**
+      * @return The K values before the last substitution.
+      */
+     public double[] getPreviousKi() {
+          return this.kiOld;
+     }
+     public double[] getLiquidMoleFractions() {
+          return this.xiArray;
+     }
+     public double[] getVapourMoleFractions() {
+          return this.yiArray;
+     }
+     public double[] getLiquidLnFugacityCoefficients() {
+          return this.lnPhiLiquid;
+     }
+     public double[] getVapourLnFugacityCoefficients() {
+          return this.lnPhiVapour;
+     }
+
+}//End of FlashState class
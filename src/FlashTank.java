@@ -1,240 +1,242 @@
-/**
- * This class represents a flash distillation vessel and contains three stream objects for the inflow and outflows.
- * Each stream is composed of an array of species. The outlet streams should usually be the same temperature as the flash tank.
- * Notes: When flash tank temp is set, outlet stream temps are also set
-  */
-public class FlashTank implements Cloneable
-{
-    //  INSTANCE VARIABLES
-
-    private HeatExchanger flashTankHeatExchanger;
-    private Stream feedStream;
-    private Stream vapourStream;
-    private Stream liquidStream;
-
-    private double flashTemp;
-    private double pressure;
-    
-    private String name;
-   
-    
-//-------------------------------------------------CONSTRUCTORS--------------------------------------------------------
-    
-    /**
-      * Builds a flash tank out of its necessary components.
-      * @param flashTankHeatExchanger The simple heat exchanger. Used to store the value of Q.
-      * @param feedStream The inlet of the flash tank. Contains known species and compositions.
-      * @param vapourStream The outlet vapour stream. For now it will be empty, but it will be solved in downstream methods. 
-      * @param liquidStream The outlet liquid stream. For now it will be empty, but it will be solved in downstream methods. 
-      * @param flashTemp The temperature of the flash tank. For case 1 and 3 it is known; for case 2 it will be solved for. 
-      * @param pressure The operating pressure of the flash tank
-      */
-    public FlashTank(HeatExchanger flashTankHeatExchanger, Stream feedStream, Stream vapourStream, Stream liquidStream, double flashTemp, double pressure)
-    {
-         
-      this.flashTankHeatExchanger = flashTankHeatExchanger.clone();
-      
-      this.feedStream = feedStream.clone();
-      this.vapourStream = vapourStream.clone();
-      this.liquidStream = liquidStream.clone();
-      
-      this.flashTemp = flashTemp;
-      this.pressure = pressure;
-      
-      this.name = "NoName";
-        
-    }
-    
-    
-    /**
-      * Same constructor as above but also has a name of the flash tank. 
-      * @param flashTankHeatExchanger The simple heat exchanger. Used to store the value of Q.
-      * @param feedStream The inlet of the flash tank. Contains known species and compositions.
-      * @param vapourStream The outlet vapour stream. For now it will be empty, but it will be solved in downstream methods. 
-      * @param liquidStream The outlet liquid stream. For now it will be empty, but it will be solved in downstream methods. 
-      * @param flashTemp The temperature of the flash tank. For case 1 and 3 it is known; for case 2 it will be solved for. 
-      * @param pressure The operating pressure of the flash tank.
-      * @param name The name of the flash tank.
-      */
-        public FlashTank(HeatExchanger flashTankHeatExchanger, Stream feedStream, Stream vapourStream, Stream liquidStream, double flashTemp, double pressure, String name)
-    {
-         
-      this.flashTankHeatExchanger = flashTankHeatExchanger.clone();
-      
-      this.feedStream = feedStream;
-      this.vapourStream = vapourStream;
-      this.liquidStream = liquidStream;
-      
-      this.flashTemp = flashTemp;
-      this.pressure = pressure; 
-      
-      this.name = name;
-        
-    }
-
-        
-    /**
-     * The copy constructor.
-     * @param toCopy The object that is copied.
-     */
-    public FlashTank(FlashTank toCopy)
-    {
-         
-      this.flashTankHeatExchanger = toCopy.flashTankHeatExchanger.clone();
-      
-      this.feedStream = toCopy.feedStream.clone();
-      this.vapourStream = toCopy.vapourStream.clone();
-      this.liquidStream = toCopy.liquidStream.clone();
-      
-      this.flashTemp = toCopy.flashTemp;
-      this.pressure = toCopy.pressure;
-      
-      this.name = toCopy.name;      
-    }//end of copy constructor
-    
-   
-//---------------------------------------------------HOUSEKEEPING METHODS----------------------------------------------
-
-    
-    public Stream getVapourStream() {
-         return this.vapourStream.clone();
-    }
-    public Stream getLiquidStream() {
-        return this.liquidStream.clone();
-    }
-    public Stream getFeedStream() {
-         return this.feedStream.clone();
-    }
-    public String getName() {
-        return this.name;
-    }
-    public double getFlashTemp() {
-         return this.flashTemp;
-    }
-    public double getPressure() {
-        return this.pressure;
-    }
-    public HeatExchanger getFlashTankHeatExchanger() {
-         return this.flashTankHeatExchanger.clone();
-    }
-    
-    public void setFeedStream(Stream feedStream) {
-        this.feedStream = feedStream.clone();
-    }
-    
-    public void setVapourStream(Stream vapourStream) {
-         this.vapourStream = vapourStream.clone();
-    }
-    
-    public void setLiquidStream(Stream liquidStream) {
-         this.liquidStream = liquidStream.clone();
-    }
-    
-    public void setFlashTankHeatExchanger(HeatExchanger flashTankHeatExchanger) {
-        this.flashTankHeatExchanger = flashTankHeatExchanger.clone();
-    }
-    
-    public void setName(String name) {
-        this.name = name;
-    }
-    
-    /**
-     * Also changes the temperatures of the outlet streams
-     * @param flashTemp The updated flash temperature
-     */
-    public void setFlashTemp(double flashTemp) {
-         this.flashTemp = flashTemp;
-         
-         //needs to set the outlet streams to the flash temp as well
-         this.vapourStream.setTemperature(flashTemp);
-         this.liquidStream.setTemperature(flashTemp);
-    }
-    
-    public void setPressure(double pressure) {
-        this.pressure = pressure;
-    }
-    
-    public FlashTank clone()
-    {
-         return new FlashTank(this);
-    }
-    
-    public String toString() {
-         return ("Q= "+this.flashTankHeatExchanger.getQ() +
-                 "\n\nINLET\t" + this.feedStream.toString() +
-                 "\n\nVAPOUR OUTLET\t" + this.vapourStream.toString() +
-                 "\n\nLIQUID OUTLET\t" + this.liquidStream.toString());                 
-    }
-
-    
-//---------------------------------------------DEEP HOUSEKEEPING METHODS---------------------------------------------
-    
-    
-    /**
-     * Sets the molar flow rate of the vapour stream outlet.
-     * @param totalMolarFlow the molar flow rate of the vapour outlet in mol/s
-     */
-    public void setVapourStreamFlowRate(double totalMolarFlow){
-         this.vapourStream.setTotalMolarFlow(totalMolarFlow);
-    }
-    
-    /**
-     * Sets the molar flow rate of the liquid outlet stream.
-     * @param totalMolarFlow the molar flow rate of the liquid outlet in mol/s
-     */
-    public void setLiquidStreamFlowRate(double totalMolarFlow){
-         this.liquidStream.setTotalMolarFlow(totalMolarFlow);
-    }
-    
-    /**
-     * Sets the mole fractions in the vapour outlet.
-     * The deep copy is done in the Stream class.
-     * @param yiArray an array of yi values
-     */
-    public void setVapourStreamMoleFractions(double[] yiArray) {
-         this.vapourStream.setMoleFractions(yiArray);
-    }
-    
-    /**
-     * Sets the mole fractions in the liquid outlet.
-     * The deep copy is done in the Stream class.
-     * @param xiArray an array of xi values
-     */
-    public void setLiquidStreamMoleFractions(double[] xiArray) {
-         this.liquidStream.setMoleFractions(xiArray);
-    }
-    
-    /**
-     * Sets the feed stream temperature, used only at the end of case 3
-     * @param temperature temperature in K
-     */
-    public void setFeedStreamTemperature(double temperature) {
-         this.feedStream.setTemperature(temperature);
-    }
-    
-    /**
-     * Sets the temperatures of both outlet streams
-     * @param temperature temperature in K
-     */
-    public void setOutletTemperatures(double temperature) {
-         this.vapourStream.setTemperature(temperature);
-         this.liquidStream.setTemperature(temperature);
-    }
-    
-    /**
-     * Sets the pressure of both outlet streams
-     * @param pressures Pressure in Pa
-     */
-    public void setOutletPressures(double pressures) {
-         this.vapourStream.setPressure(pressure);
-         this.vapourStream.setPressure(pressure);
-    }
-        
-    /**
-     * Sets the Q value for the heat exchanger.
-     * @param Q the Q value in J/s
-     */
-    public void setHeatExchangerQ(double Q) {
-         this.flashTankHeatExchanger.setQ(Q);
-    }
+/**
+ * This class represents a flash distillation vessel and contains three stream objects for the inflow and outflows.
+ * Each stream is composed of an array of species. The outlet streams should usually be the same temperature as the flash tank.
+ * Notes: When flash tank temp is set, outlet stream temps are also set
+ * A flash tank never changes once it is made, and neither do its streams. The with methods return a new flash tank
+ * that shares everything that didn't change, so the solvers can update it every iteration without copying the streams.
+  */
+public class FlashTank implements Cloneable
+{
+    //  INSTANCE VARIABLES
+
+    private final HeatExchanger flashTankHeatExchanger;
+    private final Stream feedStream;
+    private final Stream vapourStream;
+    private final Stream liquidStream;
+
+    private final double flashTemp;
+    private final double pressure;
+    
+    private final String name;
+   
+    
+//-------------------------------------------------CONSTRUCTORS--------------------------------------------------------
+    
+    /**
+      * Builds a flash tank out of its necessary components.
+      * @param flashTankHeatExchanger The simple heat exchanger. Used to store the value of Q.
+      * @param feedStream The inlet of the flash tank. Contains known species and compositions.
+      * @param vapourStream The outlet vapour stream. For now it will be empty, but it will be solved in downstream methods. 
+      * @param liquidStream The outlet liquid stream. For now it will be empty, but it will be solved in downstream methods. 
+      * @param flashTemp The temperature of the flash tank. For case 1 and 3 it is known; for case 2 it will be solved for. 
+      * @param pressure The operating pressure of the flash tank
+      */
+    public FlashTank(HeatExchanger flashTankHeatExchanger, Stream feedStream, Stream vapourStream, Stream liquidStream, double flashTemp, double pressure)
+    {
+         
+      this(flashTankHeatExchanger, feedStream, vapourStream, liquidStream, flashTemp, pressure, "NoName");
+        
+    }
+    
+    
+    /**
+      * Same constructor as above but also has a name of the flash tank. 
+      * @param flashTankHeatExchanger The simple heat exchanger. Used to store the value of Q.
+      * @param feedStream The inlet of the flash tank. Contains known species and compositions.
+      * @param vapourStream The outlet vapour stream. For now it will be empty, but it will be solved in downstream methods. 
+      * @param liquidStream The outlet liquid stream. For now it will be empty, but it will be solved in downstream methods. 
+      * @param flashTemp The temperature of the flash tank. For case 1 and 3 it is known; for case 2 it will be solved for. 
+      * @param pressure The operating pressure of the flash tank.
+      * @param name The name of the flash tank.
+      */
+        public FlashTank(HeatExchanger flashTankHeatExchanger, Stream feedStream, Stream vapourStream, Stream liquidStream, double flashTemp, double pressure, String name)
+    {
+         
+      this.flashTankHeatExchanger = flashTankHeatExchanger;
+      
+      this.feedStream = feedStream;
+      this.vapourStream = vapourStream;
+      this.liquidStream = liquidStream;
+      
+      this.flashTemp = flashTemp;
+      this.pressure = pressure; 
+      
+      this.name = name;
+        
+    }
+
+        
+    /**
+     * The copy constructor. Nothing in a flash tank ever changes, so the copy shares everything with the original.
+     * @param toCopy The object that is copied.
+     */
+    public FlashTank(FlashTank toCopy)
+    {
+         
+      this(toCopy.flashTankHeatExchanger, toCopy.feedStream, toCopy.vapourStream, toCopy.liquidStream, 
+           toCopy.flashTemp, toCopy.pressure, toCopy.name);
+      
+    }//end of copy constructor
+    
+   
+//---------------------------------------------------HOUSEKEEPING METHODS----------------------------------------------
+
+    
+    public Stream getVapourStream() {
+         return this.vapourStream;
+    }
+    public Stream getLiquidStream() {
+        return this.liquidStream;
+    }
+    public Stream getFeedStream() {
+         return this.feedStream;
+    }
+    /**
+     * @return the constant properties of the species in the feed.
+     */
+    public ComponentSet getComponentSet() {
+         return this.feedStream.getComponentSet();
+    }
+    public String getName() {
+        return this.name;
+    }
+    public double getFlashTemp() {
+         return this.flashTemp;
+    }
+    public double getPressure() {
+        return this.pressure;
+    }
+    public HeatExchanger getFlashTankHeatExchanger() {
+         return this.flashTankHeatExchanger;
+    }
+    
+    public FlashTank withFeedStream(Stream feedStream) {
+        return new FlashTank(this.flashTankHeatExchanger, feedStream, this.vapourStream, this.liquidStream, this.flashTemp, this.pressure, this.name);
+    }
+    
+    public FlashTank withVapourStream(Stream vapourStream) {
+         return new FlashTank(this.flashTankHeatExchanger, this.feedStream, vapourStream, this.liquidStream, this.flashTemp, this.pressure, this.name);
+    }
+    
+    public FlashTank withLiquidStream(Stream liquidStream) {
+         return new FlashTank(this.flashTankHeatExchanger, this.feedStream, this.vapourStream, liquidStream, this.flashTemp, this.pressure, this.name);
+    }
+    
+    public FlashTank withFlashTankHeatExchanger(HeatExchanger flashTankHeatExchanger) {
+        return new FlashTank(flashTankHeatExchanger, this.feedStream, this.vapourStream, this.liquidStream, this.flashTemp, this.pressure, this.name);
+    }
+    
+    public FlashTank withName(String name) {
+        return new FlashTank(this.flashTankHeatExchanger, this.feedStream, this.vapourStream, this.liquidStream, this.flashTemp, this.pressure, name);
+    }
+    
+    /**
+     * Also changes the temperatures of the outlet streams
+     * @param flashTemp The updated flash temperature
+     * @return a flash tank at the new flash temperature
+     */
+    public FlashTank withFlashTemp(double flashTemp) {
+         //needs to set the outlet streams to the flash temp as well
+         return new FlashTank(this.flashTankHeatExchanger, this.feedStream, this.vapourStream.withTemperature(flashTemp), 
+                              this.liquidStream.withTemperature(flashTemp), flashTemp, this.pressure, this.name);
+    }
+    
+    public FlashTank withPressure(double pressure) {
+        return new FlashTank(this.flashTankHeatExchanger, this.feedStream, this.vapourStream, this.liquidStream, this.flashTemp, pressure, this.name);
+    }
+    
+    /**
+     * A flash tank never changes, so it is its own copy.
+     */
+    public FlashTank clone()
+    {
+         return this;
+    }
+    
+    public String toString() {
+         return ("Q= "+this.flashTankHeatExchanger.getQ() +
+                 "\n\nINLET\t" + this.feedStream.toString() +
+                 "\n\nVAPOUR OUTLET\t" + this.vapourStream.toString() +
+                 "\n\nLIQUID OUTLET\t" + this.liquidStream.toString());                 
+    }
+
+    
+//---------------------------------------------DEEP HOUSEKEEPING METHODS---------------------------------------------
+    
+    
+    /**
+     * Changes the molar flow rate of the vapour stream outlet.
+     * @param totalMolarFlow the molar flow rate of the vapour outlet in mol/s
+     * @return a flash tank with the new vapour stream
+     */
+    public FlashTank withVapourStreamFlowRate(double totalMolarFlow){
+         return this.withVapourStream(this.vapourStream.withTotalMolarFlow(totalMolarFlow));
+    }
+    
+    /**
+     * Changes the molar flow rate of the liquid outlet stream.
+     * @param totalMolarFlow the molar flow rate of the liquid outlet in mol/s
+     * @return a flash tank with the new liquid stream
+     */
+    public FlashTank withLiquidStreamFlowRate(double totalMolarFlow){
+         return this.withLiquidStream(this.liquidStream.withTotalMolarFlow(totalMolarFlow));
+    }
+    
+    /**
+     * Changes the mole fractions in the vapour outlet.
+     * The copy is done in the Stream class.
+     * @param yiArray an array of yi values
+     * @return a flash tank with the new vapour stream
+     */
+    public FlashTank withVapourStreamMoleFractions(double[] yiArray) {
+         return this.withVapourStream(this.vapourStream.withMoleFractions(yiArray));
+    }
+    
+    /**
+     * Changes the mole fractions in the liquid outlet.
+     * The copy is done in the Stream class.
+     * @param xiArray an array of xi values
+     * @return a flash tank with the new liquid stream
+     */
+    public FlashTank withLiquidStreamMoleFractions(double[] xiArray) {
+         return this.withLiquidStream(this.liquidStream.withMoleFractions(xiArray));
+    }
+    
+    /**
+     * Changes the feed stream temperature, used only at the end of case 3
+     * @param temperature temperature in K
+     * @return a flash tank with the new feed stream
+     */
+    public FlashTank withFeedStreamTemperature(double temperature) {
+         return this.withFeedStream(this.feedStream.withTemperature(temperature));
+    }
+    
+    /**
+     * Changes the temperatures of both outlet streams
+     * @param temperature temperature in K
+     * @return a flash tank with the new outlet streams
+     */
+    public FlashTank withOutletTemperatures(double temperature) {
+         return new FlashTank(this.flashTankHeatExchanger, this.feedStream, this.vapourStream.withTemperature(temperature), 
+                              this.liquidStream.withTemperature(temperature), this.flashTemp, this.pressure, this.name);
+    }
+    
+    /**
+     * Changes the pressure of both outlet streams
+     * @param pressure Pressure in Pa
+     * @return a flash tank with the new outlet streams
+     */
+    public FlashTank withOutletPressures(double pressure) {
+         return new FlashTank(this.flashTankHeatExchanger, this.feedStream, this.vapourStream.withPressure(pressure), 
+                              this.liquidStream.withPressure(pressure), this.flashTemp, this.pressure, this.name);
+    }
+        
+    /**
+     * Changes the Q value for the heat exchanger.
+     * @param Q the Q value in J/s
+     * @return a flash tank with the new heat exchanger
+     */
+    public FlashTank withHeatExchangerQ(double Q) {
+         return this.withFlashTankHeatExchanger(new HeatExchanger(Q));
+    }
 }
\ No newline at end of file
@@ -1,32 +1,80 @@
-import customExceptions.NotFlashable;
-
-/**
- * Calculates the K values for each species with Psat/P (Raoult's Law)
- */
-public class IdealModel extends VLEModel
-{
-  
-     /**
-      * Calculates the K values for each species with Psat/P (Raoult's Law).
-      * @param flashTank The flash tank being solved.
-      * @return The ideal K values for each species.
-      */
-     public double[] calculateKi(FlashTank flashTank)
-     {
-          
-          double[] kiArray = new double[flashTank.getFeedStream().getSpecies().length];
-               
-          for (int i=0; i<flashTank.getFeedStream().getSpecies().length; i++)
-          {
-               //calculate vapour pressure at flash tank temperature.
-               kiArray[i] = flashTank.getFeedStream().getSpecies()[i].calcVapourPressure(flashTank.getFlashTemp())/flashTank.getPressure();
-          }
-          
-          for (int i=0; i<flashTank.getFeedStream().getSpecies().length; i++) {
-               if(!flashTank.getFeedStream().getSpecies()[i].getIsCondensable()) //T>Tc
-                    kiArray[i] = 1e30; //Just a really high number
-          }
-          
-          return kiArray;
-     }     
-}
\ No newline at end of file
+import customExceptions.NotFlashable;
+import java.util.Arrays;
+
+/**
+ * Calculates the K values for each species with Psat/P (Raoult's Law)
+ * The vapour pressures come from the ComponentSet, in log space, for all the species at once.
+ */
+public class IdealModel extends VLEModel
+{
+  
+     /**
+      * Calculates the K values for each species with Psat/P (Raoult's Law).
+      * The K values don't depend on the phase compositions.
+      * @param components The species being flashed.
+      * @param temperature The temperature in K.
+      * @param pressure The pressure in Pa.
+      * @param liquidMoleFractions Not used.
+      * @param vapourMoleFractions Not used.
+      * @param ki Filled with the ideal K values for each species.
+      */
+     public void calculateKi(ComponentSet components, double temperature, double pressure, 
+                             double[] liquidMoleFractions, double[] vapourMoleFractions, double[] ki)
+     {
+          double lnPressure = Math.log(pressure);
+          
+          //calculate vapour pressure at flash tank temperature, as ln(Psat) in ki for now
+          components.calcLnVapourPressures(temperature, ki, null);
+          
+          for (int i=0; i<components.getNumComponents(); i++) {
+               if(!components.getIsCondensable(i)) //T>Tc
+                    ki[i] = NON_CONDENSABLE_K;
+               else
+                    ki[i] = Math.exp(ki[i] - lnPressure);
+          }
+     }     
+     
+     /**
+      * The vapour is an ideal gas (ln(phi) = 0), and the liquid gets ln(Psat/P), so the ratio gives Raoult's Law.
+      * Non-condensable species get ln(NON_CONDENSABLE_K) in the liquid.
+      * @return 0, there isn't a compressibility factor.
+      */
+     public double calculateLnFugacityCoefficients(ComponentSet components, double temperature, double pressure, double[] moleFractions, 
+                                                   boolean isLiquid, double previousZ, double[] lnFugacityCoefficients)
+     {
+          return calculateLnFugacityCoefficients(components, temperature, pressure, moleFractions, isLiquid, previousZ, 
+                                                 lnFugacityCoefficients, null, null);
+     }
+     
+     /**
+      * The same ln(phi) as above. The temperature derivative of the liquid is d(ln Psat)/dT, everything else is 0.
+      * @return 0, there isn't a compressibility factor.
+      */
+     public double calculateLnFugacityCoefficients(ComponentSet components, double temperature, double pressure, double[] moleFractions, boolean isLiquid, 
+                                                   double previousZ, double[] lnFugacityCoefficients, double[][] dlnPhidn, double[] dlnPhidT)
+     {
+          clearCompositionDerivatives(dlnPhidn);
+          
+          if (!isLiquid) {
+               Arrays.fill(lnFugacityCoefficients, 0, components.getNumComponents(), 0);
+               if (dlnPhidT != null)
+                    Arrays.fill(dlnPhidT, 0, components.getNumComponents(), 0);
+               return 0;
+          }
+          
+          //ln(Psat) and its slope for every species at once, then ln(Psat/P)
+          double lnPressure = Math.log(pressure);
+          components.calcLnVapourPressures(temperature, lnFugacityCoefficients, dlnPhidT);
+          for (int i=0; i<components.getNumComponents(); i++) {
+               if (!components.getIsCondensable(i)) {
+                    lnFugacityCoefficients[i] = Math.log(NON_CONDENSABLE_K);
+                    if (dlnPhidT != null)
+                         dlnPhidT[i] = 0;
+               }
+               else
+                    lnFugacityCoefficients[i] -= lnPressure;
+          }
+          
+          return 0;
+     }
+}
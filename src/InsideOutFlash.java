@@ -0,0 +1,336 @@
+import numericMethods.*;
+import customExceptions.NotFlashable;
+import java.util.Arrays;
+
+/**
+ * A FlashModel (FlashClient) class for the same system as CaseTwo (an adiabatic tank at a known pressure),
+ * solved with the inside-out method of Boston and Britt.
+ * The K values are approximated by ln(Ki) = ui + ln(Kb), where ln(Kb) = A + B*(1/T - 1/Tref) is a weighted average over the species
+ * and the ui are held constant. The inner loop solves the energy balance for T on that approximation with Brent's method,
+ * finding V/F from the Rachford-Rice equation at every temperature, so it never calls the VLE model.
+ * The outer loop evaluates ln(phi) and d(ln phi)/dT from the VLE model once at the inner solution, refits ui, A and B there,
+ * and stops when the approximate K values are the rigorous ones. The first approximation is fitted to the Wilson K values.
+ * The enthalpies come straight from the Species correlations, which are already cheap, so they aren't approximated.
+ * Each outer iteration is two calls to the VLE model, where solving the flash at every trial temperature takes hundreds.
+ */
+public class InsideOutFlash extends FlashModel
+{
+
+
+     private FlashTank flashTank;
+     private VLEModel vleModel;
+     private double[] kiArray;
+
+     private static final double OUTER_TOLERANCE = 1e-8;  //on the difference between the approximate and rigorous ln(Ki)
+     private static final int MAX_OUTER_ITERATIONS = 100;
+     private static final double INNER_TOLERANCE = 1e-9;  //K
+     private static final int MAX_INNER_ITERATIONS = 200;
+
+
+
+//------------------------------------------------CONSTRUCTORS---------------------------------------------------------
+
+
+     /**
+      * Takes in all requred instance variables (A tank and pressure).
+      * @param flashTank must be a properly consturcted FlashTank Object
+      * @param vleModel The model that is used to determine the Ki values and their temperature derivatives.
+      */
+     public InsideOutFlash(FlashTank flashTank, VLEModel vleModel){
+
+          this.flashTank = flashTank;
+          this.vleModel = vleModel; //No params, nothing to clone
+          this.kiArray = new double[flashTank.getComponentSet().getNumComponents()];
+
+     }
+
+     /**
+      * Default constructor
+      * For constructing a blank object in the main method for the purpose of being overwritten
+      * */
+     public InsideOutFlash()
+     {
+          this.flashTank = null;
+          this.vleModel = null;
+          this.kiArray = null;
+     }
+
+//-----------------------------------------------------METHODS---------------------------------------------------------
+
+
+     /**
+      * This FlashClients required solveSystem method definition.
+      * @throws NotFlashable if the bubble and dewpoint checks fail, or the outer loop doesn't converge to a two phase split.
+      * @return a FlashTank object with all the parameters calculated, the same as CaseTwo would.
+      */
+     public FlashTank solveSystem() throws NotFlashable{
+
+          //Create default liquid and vapour outlet streams @the flash temp and pressure
+          LiquidSpecies[] liquidStreamSpecies = createLiquidSpeciesArray();
+          VapourSpecies[] vapourStreamSpecies = createVapourSpeciesArray();
+
+          double outletTemperature = 0; //default flashTemp
+          double outletPressure = this.flashTank.getPressure();
+          double[] defaultMoleFractions = this.flashTank.getFeedStream().getMoleFractions();
+
+          this.flashTank = this.flashTank.withLiquidStream(new Stream(liquidStreamSpecies, 0.0, defaultMoleFractions,
+                                                                      outletPressure, outletTemperature));
+          this.flashTank = this.flashTank.withVapourStream(new Stream(vapourStreamSpecies, 0.0, defaultMoleFractions,
+                                                                      outletPressure, outletTemperature));
+
+          //get Temperature bounds from bubble to dew
+          double[] bounds = SaturationPointSolver.twoPhaseRange(this.vleModel, this.flashTank.getComponentSet(), defaultMoleFractions, 
+                                                               outletPressure);
+
+          ComponentSet components = this.flashTank.getComponentSet();
+          int n = components.getNumComponents();
+          double pressure = this.flashTank.getPressure();
+          ApproximateHeatBalance heatBalance = new ApproximateHeatBalance(components, liquidStreamSpecies, vapourStreamSpecies);
+
+          FlashState state = heatBalance.state;
+          double[] lnKi = new double[n];
+          double[] dlnKidT = new double[n];
+          double[] lnPhiLiquid = state.getLiquidLnFugacityCoefficients();
+          double[] lnPhiVapour = state.getVapourLnFugacityCoefficients();
+          double[] dlnPhiLiquiddT = new double[n];
+          double[] dlnPhiVapourdT = new double[n];
+
+          //The first approximation comes from the Wilson K values at the dew temperature, ln(Ki) = ln(Pci/P) + 5.37(1+wi)(1-Tci/T)
+          double temperature = bounds[1];
+          for (int i=0; i<n; i++) {
+               if (!components.getIsCondensable(i))
+                    continue;
+               double a = 5.37*(1+components.getAccentricFactor(i));
+               double Tc = components.getCriticalTemperature(i);
+               lnKi[i] = Math.log(components.getCriticalPressure(i)/pressure) + a*(1 - Tc/temperature);
+               dlnKidT[i] = a*Tc/(temperature*temperature);
+          }
+          heatBalance.fit(lnKi, dlnKidT, temperature, 0.5);
+
+          boolean converged = false;
+          for (int iter=0; iter<MAX_OUTER_ITERATIONS; iter++) {
+               //Inner loop: the energy balance on the approximate K values
+               double[] innerBounds = heatBalance.findBounds(bounds);
+               RootResult innerResult = RootFinder.brentRoot(innerBounds[0], innerBounds[1], 0, INNER_TOLERANCE, MAX_INNER_ITERATIONS,
+                                                            heatBalance);
+               if (innerResult.getStatus() == RootResult.NOT_BRACKETED || innerResult.getStatus() == RootResult.BAD_VALUE)
+                    throw new NotFlashable("An adiabatic flash between [" + bounds[0] + "," + bounds[1] + "] is not possible");
+               temperature = innerResult.getRoot();
+               heatBalance.findYGivenX(temperature);
+
+               //Outer loop: the rigorous K values at the inner solution
+               state.calculateLnFugacityCoefficients(this.vleModel, null, null, dlnPhiLiquiddT, dlnPhiVapourdT);
+
+               double maxDifference = 0;
+               for (int i=0; i<n; i++) {
+                    if (!components.getIsCondensable(i))
+                         continue;
+                    lnKi[i] = lnPhiLiquid[i] - lnPhiVapour[i];
+                    dlnKidT[i] = dlnPhiLiquiddT[i] - dlnPhiVapourdT[i];
+                    maxDifference = Math.max(maxDifference, Math.abs(lnKi[i] - Math.log(state.getKi()[i])));
+               }
+               if (!(maxDifference == maxDifference))
+                    throw new NotFlashable("The VLE model could not be evaluated at " + temperature + " K.");
+
+               if (maxDifference < OUTER_TOLERANCE) {
+                    converged = true;
+                    break;
+               }
+
+               heatBalance.fit(lnKi, dlnKidT, temperature, state.getVFRatio());
+          }
+
+          if (!converged)
+               throw new NotFlashable("System not solved...\nThe inside-out flash did not converge in " + MAX_OUTER_ITERATIONS + " iterations.");
+          //The inner loop's range is wider than the rigorous one, so a solution outside of the bubble to dew range isn't the adiabatic flash
+          if (!(state.getVapourFlow() > 0 && state.getVapourFlow() < state.getFeedFlow())
+                   || !SaturationPointSolver.isInTwoPhaseRange(temperature, bounds))
+               throw new NotFlashable("An adiabatic flash between [" + bounds[0] + "," + bounds[1] + "] is not possible");
+
+          this.flashTank = state.toFlashTank(this.flashTank);
+          this.kiArray = Arrays.copyOf(state.getKi(), n);
+
+          //Q = V*Hv + L*Hl - F*Hf
+          double Q = this.flashTank.getVapourStream().getTotalMolarFlow() * this.flashTank.getVapourStream().totalEnthalpy()
+               + this.flashTank.getLiquidStream().getTotalMolarFlow() * this.flashTank.getLiquidStream().totalEnthalpy()
+               - this.flashTank.getFeedStream().getTotalMolarFlow() * this.flashTank.getFeedStream().totalEnthalpy();
+          this.flashTank = this.flashTank.withHeatExchangerQ(Q);
+
+          return this.flashTank;
+     }
+
+
+     /**
+      * Creates an array of liquid species matching the species in the feed stream.
+      * @return an array of LiquidSpecies matching the feed stream species.
+      */
+     private LiquidSpecies[] createLiquidSpeciesArray() {
+
+          Species[] species = this.flashTank.getFeedStream().getSpecies();
+          int length = species.length;
+          LiquidSpecies[] toReturn = new LiquidSpecies[length];
+
+          for(int i=0; i<length; i++)
+          {
+               toReturn[i] = new LiquidSpecies(species[i]); //The way LiquidSpecies is made, this will work even if the feed has different phases
+          }
+
+          return toReturn;
+     }
+
+
+     /**
+      * Creates an array of vapour species matching the species in the feed stream
+      * @return an array of vapour species matching the feed stream species
+      */
+     private VapourSpecies[] createVapourSpeciesArray() {
+
+          Species[] species = this.flashTank.getFeedStream().getSpecies();
+          int length = species.length;
+          VapourSpecies[] toReturn = new VapourSpecies[length];
+
+          for(int i=0; i<length; i++)
+          {
+               toReturn[i] = new VapourSpecies(species[i]); //The way LiquidSpecies is made, this will work even if the feed has different phases
+          }
+
+          return toReturn;
+     }
+
+
+     /**
+      * Q(T) = V*Hv + L*Hl - F*Hf on the approximate K values, ln(Ki) = ui + A + B*(1/T - 1/Tref). This is the inner loop's equation.
+      * Each evaluation leaves T, V, Ki, xi and yi in its FlashState. Non-condensable species always get NON_CONDENSABLE_K.
+      */
+     private class ApproximateHeatBalance implements ScalarFunction
+     {
+          private ComponentSet components;
+          private Species[] liquidSpecies;
+          private Species[] vapourSpecies;
+          private double[] moleFractionsFeed;
+          private double feedFlow;
+          private double feedEnthalpy;  //F*Hf
+          private boolean hasNonCondensable;
+
+          private double[] u;  //ln(Ki/Kb)
+          private double lnKbReference;  //A
+          private double slope;  //B = d(ln Kb)/d(1/T)
+          private double inverseReferenceTemperature;  //1/Tref
+
+          private FlashState state;
+
+
+          private ApproximateHeatBalance(ComponentSet components, Species[] liquidSpecies, Species[] vapourSpecies)
+          {
+               int n = components.getNumComponents();
+               this.components = components;
+               this.liquidSpecies = liquidSpecies;
+               this.vapourSpecies = vapourSpecies;
+               this.moleFractionsFeed = flashTank.getFeedStream().getMoleFractions();
+               this.feedFlow = flashTank.getFeedStream().getTotalMolarFlow();
+               this.feedEnthalpy = this.feedFlow * flashTank.getFeedStream().totalEnthalpy();
+               this.u = new double[n];
+               this.state = new FlashState(components, this.moleFractionsFeed, this.feedFlow, 0, flashTank.getPressure());
+
+               for (int i=0; i<n; i++) {
+                    if (!components.getIsCondensable(i) && this.moleFractionsFeed[i] > 0)
+                         this.hasNonCondensable = true;
+               }
+          }
+
+
+          /**
+           * Fits the approximation to K values and their temperature derivatives at one temperature.
+           * ln(Kb) is the average of ln(Ki) weighted by ti = yi/(1+(V/F)(Ki-1)), as Boston and Britt suggest, over the condensable species in the feed.
+           * @param lnKi ln(Ki) at the temperature.
+           * @param dlnKidT d(ln Ki)/dT at the temperature.
+           * @param temperature The temperature in K, which becomes Tref.
+           * @param VFRatio V/F at the temperature, for the weights.
+           */
+          private void fit(double[] lnKi, double[] dlnKidT, double temperature, double VFRatio)
+          {
+               double sumWeights = 0;
+               double lnKb = 0;
+               double dlnKbdT = 0;
+               for (int i=0; i<this.components.getNumComponents(); i++) {
+                    if (!this.components.getIsCondensable(i) || this.moleFractionsFeed[i] == 0)
+                         continue;
+                    double K = Math.exp(lnKi[i]);
+                    double denominator = 1 + VFRatio*(K-1);
+                    double weight = this.moleFractionsFeed[i]*K/(denominator*denominator);
+                    sumWeights += weight;
+                    lnKb += weight*lnKi[i];
+                    dlnKbdT += weight*dlnKidT[i];
+               }
+               lnKb /= sumWeights;
+               dlnKbdT /= sumWeights;
+
+               this.lnKbReference = lnKb;
+               this.slope = -temperature*temperature*dlnKbdT;
+               this.inverseReferenceTemperature = 1/temperature;
+               for (int i=0; i<this.components.getNumComponents(); i++)
+                    this.u[i] = this.components.getIsCondensable(i) ? lnKi[i] - lnKb : 0;
+          }
+
+
+          /**
+           * The bubble and dew temperatures of the approximation are closed form, since ln(Kb) is linear in 1/T.
+           * Each end of the range is the wider of those and the rigorous ones, so it brackets the inner solution whenever the rigorous range does.
+           * @param bounds The rigorous [bubble Temp, dew Temp].
+           * @return [low Temp, high Temp] for the inner loop.
+           */
+          private double[] findBounds(double[] bounds)
+          {
+               double bubbleSum = 0;
+               double dewSum = 0;
+               for (int i=0; i<this.components.getNumComponents(); i++) {
+                    if (!this.components.getIsCondensable(i) || this.moleFractionsFeed[i] == 0)
+                         continue;
+                    bubbleSum += this.moleFractionsFeed[i]*Math.exp(this.u[i]);
+                    dewSum += this.moleFractionsFeed[i]*Math.exp(-this.u[i]);
+               }
+
+               double[] toReturn = {bounds[0], bounds[1]};
+               if (!(this.slope < 0))
+                    return toReturn;  //Kb has to rise with T for the approximation to have a bubble and dew point
+
+               //sum(zi*Ki) = 1 at the bubble point and sum(zi/Ki) = 1 at the dew point
+               double inverseBubble = this.inverseReferenceTemperature + (-Math.log(bubbleSum) - this.lnKbReference)/this.slope;
+               double inverseDew = this.inverseReferenceTemperature + (Math.log(dewSum) - this.lnKbReference)/this.slope;
+               if (!this.hasNonCondensable && inverseBubble > 0)
+                    toReturn[0] = Math.min(bounds[0], 1/inverseBubble);
+               if (inverseDew > 0)
+                    toReturn[1] = Math.max(bounds[1], 1/inverseDew);
+
+               return toReturn;
+          }
+
+
+          public double findYGivenX(double temperature)
+          {
+               double lnKb = this.lnKbReference + this.slope*(1/temperature - this.inverseReferenceTemperature);
+               for (int i=0; i<this.components.getNumComponents(); i++)
+                    this.state.setKi(i, this.components.getIsCondensable(i) ? Math.exp(this.u[i] + lnKb) : VLEModel.NON_CONDENSABLE_K);
+
+               this.state.setTemperature(temperature);
+               this.state.split();
+               double vapourFlow = this.state.getVapourFlow();
+               double liquidFlow = this.feedFlow - vapourFlow;
+               double[] xiArray = this.state.getLiquidMoleFractions();
+               double[] yiArray = this.state.getVapourMoleFractions();
+
+               //Q = V*Hv + L*Hl - F*Hf, worked out the same way as from the flash tank's streams
+               double vapourEnthalpy = 0;
+               double liquidEnthalpy = 0;
+               for (int i=0; i<this.components.getNumComponents(); i++) {
+                    if (yiArray[i] != 0)
+                         vapourEnthalpy += yiArray[i]*this.vapourSpecies[i].calcEnthalpy(temperature);
+                    if (xiArray[i] != 0)
+                         liquidEnthalpy += xiArray[i]*this.liquidSpecies[i].calcEnthalpy(temperature);
+               }
+
+               return vapourFlow*vapourEnthalpy*vapourFlow + liquidFlow*liquidEnthalpy*liquidFlow - this.feedEnthalpy;
+          }
+     }
+
+}//End of InsideOutFlash class
@@ -0,0 +1,344 @@
+import numericMethods.*;
+import customExceptions.NotFlashable;
+import java.util.Arrays;
+
+/**
+ * A FlashModel (FlashClient) class for the same system as CaseOne (a tank at a known temperature and pressure),
+ * solved with a second order method instead of successive substitution alone.
+ * Successive substitution from the K values of the stability test gets close to the solution, then Newton's method on the vapour
+ * mole numbers (vi) finishes it off, solving ln(fi vapour) - ln(fi liquid) = 0 with the analytic composition derivatives of ln(phi)
+ * from the VLE model. The Jacobian of those equations is the Hessian of the Gibbs energy, so near the solution it converges quadratically.
+ * Every Newton step goes through the line search in NewtonSystemSolver, which cuts back a step that leaves 0 &lt; vi &lt; Fzi
+ * or doesn't reduce the residual. If Newton's method still fails, the flash goes back to successive substitution.
+ */
+public class NewtonFlash extends FlashModel
+{
+
+
+     private FlashTank flashTank;
+     private VLEModel vleModel;
+     private double[] kiArray;
+
+     private static final int MIN_SUBSTITUTION_STEPS = 3;  //successive substitution steps before Newton's method can take over
+     private static final double SWITCH_TOLERANCE = 0.1;  //the largest change in ln(Ki) from one substitution step that Newton's method is trusted with
+     private static final double NEWTON_TOLERANCE = 1e-10;  //on ln(fi vapour) - ln(fi liquid)
+     private static final int MAX_NEWTON_ITERATIONS = 20;
+
+
+
+//------------------------------------------------CONSTRUCTORS---------------------------------------------------------
+
+
+     /**
+      * Takes in all requred instance variables (A tank, pressure and temperature).
+      * @param flashTank must be a properly consturcted FlashTank Object
+      * @param vleModel The model that is used to determine the Ki values and their derivatives.
+      */
+     public NewtonFlash(FlashTank flashTank, VLEModel vleModel){
+
+          this.flashTank = flashTank;
+          this.vleModel = vleModel; //No params, nothing to clone
+          this.kiArray = new double[flashTank.getComponentSet().getNumComponents()];
+
+     }
+
+     /**
+      * Default constructor
+      * For constructing a blank object in the main method for the purpose of being overwritten
+      * */
+     public NewtonFlash()
+     {
+          this.flashTank = null;
+          this.vleModel = null;
+          this.kiArray = null;
+     }
+
+//-----------------------------------------------------METHODS---------------------------------------------------------
+
+
+     /**
+      * This FlashClients required solveSystem method definition.
+      * @throws NotFlashable if the stability test finds that the feed doesn't split into two phases at the flash temperature and pressure.
+      * @return a FlashTank object with all the parameters calculated, the same as CaseOne would.
+      */
+     public FlashTank solveSystem() throws NotFlashable{
+
+          //Create default liquid and vapour outlet streams @the flash temp and pressure
+          LiquidSpecies[] liquidStreamSpecies = createLiquidSpeciesArray();
+          VapourSpecies[] vapourStreamSpecies = createVapourSpeciesArray();
+
+          double outletTemperature = this.flashTank.getFlashTemp();
+          double outletPressure = this.flashTank.getPressure();
+          double[] defaultMoleFractions = this.flashTank.getFeedStream().getMoleFractions();
+
+          this.flashTank = this.flashTank.withLiquidStream(new Stream(liquidStreamSpecies, 0.0, defaultMoleFractions,
+                                                                      outletPressure, outletTemperature));
+          this.flashTank = this.flashTank.withVapourStream(new Stream(vapourStreamSpecies, 0.0, defaultMoleFractions,
+                                                                      outletPressure, outletTemperature));
+
+          //Check if it is flashable, and start from the K values of the phases the stability test found
+          PhaseStabilityAnalysis stability = PhaseStabilityAnalysis.analyse(this.vleModel, this.flashTank.getComponentSet(),
+                                                                            defaultMoleFractions, outletTemperature, outletPressure);
+          stability.requireTwoPhases();
+          this.kiArray = stability.getKi();
+
+          double tolerance = 0.0001;
+          double maxDifference = 0.0;
+          int counter = 1;
+
+          //The iteration works on the arrays of a FlashState. The outlet streams are only built once it has converged
+          ComponentSet components = this.flashTank.getComponentSet();
+          FlashState state = new FlashState(components, defaultMoleFractions, this.flashTank.getFeedStream().getTotalMolarFlow(),
+                                            outletTemperature, outletPressure);
+          state.setKi(this.kiArray);
+          boolean newtonTried = false;
+          boolean newtonConverged = false;
+          double maxLnKChange = Double.POSITIVE_INFINITY;
+          do {
+               counter++;
+               //Calculate V/F from the Rachford-Rice equation, then the phase compositions
+               state.split();
+
+               //Once substitution has settled on a two phase split, finish with Newton's method. Any further away and the
+               //Gibbs energy can be concave in some direction, which sends Newton's method the wrong way. It only gets one try
+               if (!newtonTried && counter > MIN_SUBSTITUTION_STEPS && maxLnKChange < SWITCH_TOLERANCE
+                        && state.getVFRatio() > 0 && state.getVFRatio() < 1) {
+                    newtonTried = true;
+
+                    FugacityBalance balance = new FugacityBalance(state);
+                    double[] vapourMoles = balance.createVapourMoles();
+                    SystemResult result = state.getWorkspace().getSystemSolver(vapourMoles.length).solve(balance, vapourMoles, NEWTON_TOLERANCE,
+                                                                                                        MAX_NEWTON_ITERATIONS, true);
+
+                    if (result.getStatus() == SystemResult.CONVERGED) {
+                         //Leave xi, yi and ln(phi) at the solution, and take Ki from them
+                         state.setVapourFlow(balance.evaluate(vapourMoles, null));
+                         double[] ki = state.getKi();
+                         double[] lnPhiLiquid = state.getLiquidLnFugacityCoefficients();
+                         double[] lnPhiVapour = state.getVapourLnFugacityCoefficients();
+                         for (int i=0; i<ki.length; i++) {
+                              if (components.getIsCondensable(i))
+                                   ki[i] = Math.exp(lnPhiLiquid[i] - lnPhiVapour[i]);
+                              else
+                                   ki[i] = VLEModel.NON_CONDENSABLE_K;
+                         }
+                         newtonConverged = true;
+                         break;
+                    }
+
+                    //Newton's method failed, carry on substituting from where it started
+                    state.split();
+               }
+
+               //Recalculate the K values and compare
+               maxDifference = state.substitute(vleModel);
+
+               double[] ki = state.getKi();
+               double[] kiOld = state.getPreviousKi();
+               maxLnKChange = 0.0;
+               for(int i=0; i<ki.length; i++) {
+                    if(components.getIsCondensable(i))
+                         maxLnKChange = Math.max(maxLnKChange, Math.abs(Math.log(ki[i]/kiOld[i])));
+               }
+
+          } while((maxDifference>tolerance) && (counter<1000));
+
+          //Substitution that ends on a single phase means there was never a split to find
+          if (!newtonConverged && state.getVFRatio() <= 0)
+               throw new NotFlashable("System not solved...\nThe operating pressure is above the bubble pressure for this system.");
+          if (!newtonConverged && state.getVFRatio() >= 1)
+               throw new NotFlashable("System not solved...\nThe operating pressure is below the dew pressure for this system.");
+
+          this.flashTank = state.toFlashTank(this.flashTank);
+          this.kiArray = Arrays.copyOf(state.getKi(), state.getKi().length);
+
+          //Calculate Q, the temperature of the flash tank is known at this point
+          //Q = V*Hv + L*Hl - F*Hf
+          double Q = this.flashTank.getVapourStream().getTotalMolarFlow() * this.flashTank.getVapourStream().totalEnthalpy()
+               + this.flashTank.getLiquidStream().getTotalMolarFlow() * this.flashTank.getLiquidStream().totalEnthalpy()
+               - this.flashTank.getFeedStream().getTotalMolarFlow() * this.flashTank.getFeedStream().totalEnthalpy();
+          this.flashTank = this.flashTank.withHeatExchangerQ(Q);
+
+          return this.flashTank;
+     }
+
+
+     /**
+      * Creates an array of liquid species matching the species in the feed stream.
+      * @return an array of LiquidSpecies matching the feed stream species.
+      */
+     private LiquidSpecies[] createLiquidSpeciesArray() {
+
+          Species[] species = this.flashTank.getFeedStream().getSpecies();
+          int length = species.length;
+          LiquidSpecies[] toReturn = new LiquidSpecies[length];
+
+          for(int i=0; i<length; i++)
+          {
+               toReturn[i] = new LiquidSpecies(species[i]); //The way LiquidSpecies is made, this will work even if the feed has different phases
+          }
+
+          return toReturn;
+     }
+
+
+     /**
+      * Creates an array of vapour species matching the species in the feed stream
+      * @return an array of vapour species matching the feed stream species
+      */
+     private VapourSpecies[] createVapourSpeciesArray() {
+
+          Species[] species = this.flashTank.getFeedStream().getSpecies();
+          int length = species.length;
+          VapourSpecies[] toReturn = new VapourSpecies[length];
+
+          for(int i=0; i<length; i++)
+          {
+               toReturn[i] = new VapourSpecies(species[i]); //The way LiquidSpecies is made, this will work even if the feed has different phases
+          }
+
+          return toReturn;
+     }
+
+
+     /**
+      * The equations Newton's method solves: gk = ln(yk) + ln(phi k vapour) - ln(xk) - ln(phi k liquid) = 0,
+      * one for each condensable species in the feed, as functions of the vapour mole numbers vk.
+      * Non-condensable species are all in the vapour, and species that aren't in the feed are left out.
+      * The Jacobian is dgk/dvm = (delta km/vk - 1 + n*d(ln phi k vapour)/dnm)/V + (delta km/lk - 1 + n*d(ln phi k liquid)/dnm)/L
+      * Each evaluation leaves xi, yi and ln(phi) of both phases in the FlashState it was given.
+      */
+     private class FugacityBalance implements VectorFunction
+     {
+          private ComponentSet components;
+          private FlashState state;
+          private double[] feedMoles;
+          private double nonCondensableMoles;
+          private int[] unknowns;  //the species index of each vk
+          private double[] xiArray;
+          private double[] yiArray;
+          private double[] lnPhiLiquid;
+          private double[] lnPhiVapour;
+          private double[][] dlnPhiLiquiddn;
+          private double[][] dlnPhiVapourdn;
+
+
+          /**
+           * @param state The flash, split at the K values Newton's method starts from.
+           */
+          private FugacityBalance(FlashState state)
+          {
+               ComponentSet components = flashTank.getComponentSet();
+               double[] moleFractionsFeed = flashTank.getFeedStream().getMoleFractions();
+               this.components = components;
+               this.state = state;
+               this.xiArray = state.getLiquidMoleFractions();
+               this.yiArray = state.getVapourMoleFractions();
+               this.lnPhiLiquid = state.getLiquidLnFugacityCoefficients();
+               this.lnPhiVapour = state.getVapourLnFugacityCoefficients();
+               this.dlnPhiLiquiddn = new double[components.getNumComponents()][components.getNumComponents()];
+               this.dlnPhiVapourdn = new double[components.getNumComponents()][components.getNumComponents()];
+
+               this.feedMoles = new double[components.getNumComponents()];
+               int count = 0;
+               for (int i=0; i<components.getNumComponents(); i++) {
+                    this.feedMoles[i] = state.getFeedFlow()*moleFractionsFeed[i];
+                    if (!components.getIsCondensable(i))
+                         this.nonCondensableMoles += this.feedMoles[i];
+                    else if (this.feedMoles[i] > 0)
+                         count++;
+               }
+
+               this.unknowns = new int[count];
+               count = 0;
+               for (int i=0; i<components.getNumComponents(); i++) {
+                    if (components.getIsCondensable(i) && this.feedMoles[i] > 0)
+                         this.unknowns[count++] = i;
+               }
+          }
+
+
+          /**
+           * @return The starting vk for Newton's method, from the split in the FlashState.
+           */
+          private double[] createVapourMoles()
+          {
+               double[] vapourMoles = new double[this.unknowns.length];
+               for (int k=0; k<this.unknowns.length; k++)
+                    vapourMoles[k] = this.state.getVapourFlow()*this.yiArray[this.unknowns[k]];
+
+               return vapourMoles;
+          }
+
+
+          public void findYGivenX(double[] vapourMoles, double[] y, double[][] dydx)
+          {
+               double vapourFlow;
+               try {
+                    vapourFlow = evaluate(vapourMoles, dydx);
+               }
+               catch (NotFlashable e) {
+                    vapourFlow = Double.NaN;
+               }
+
+               if (Double.isNaN(vapourFlow)) {
+                    Arrays.fill(y, Double.NaN);
+                    return;
+               }
+
+               for (int k=0; k<this.unknowns.length; k++) {
+                    int i = this.unknowns[k];
+                    y[k] = Math.log(this.yiArray[i]) + this.lnPhiVapour[i] - Math.log(this.xiArray[i]) - this.lnPhiLiquid[i];
+               }
+          }
+
+
+          /**
+           * Fills xi, yi and ln(phi) of both phases for the vapour mole numbers vk, and the Jacobian if dydx isn't null.
+           * @return The total vapour flow V, or NaN if some vk is outside 0 &lt; vk &lt; Fzk.
+           */
+          private double evaluate(double[] vapourMoles, double[][] dydx) throws NotFlashable
+          {
+               double vapourFlow = this.nonCondensableMoles;
+               double liquidFlow = 0;
+               for (int k=0; k<this.unknowns.length; k++) {
+                    double feed = this.feedMoles[this.unknowns[k]];
+                    if (!(vapourMoles[k] > 0 && vapourMoles[k] < feed))
+                         return Double.NaN;
+                    vapourFlow += vapourMoles[k];
+                    liquidFlow += feed - vapourMoles[k];
+               }
+
+               Arrays.fill(this.xiArray, 0);
+               Arrays.fill(this.yiArray, 0);
+               for (int i=0; i<this.components.getNumComponents(); i++) {
+                    if (!this.components.getIsCondensable(i))
+                         this.yiArray[i] = this.feedMoles[i]/vapourFlow;
+               }
+               for (int k=0; k<this.unknowns.length; k++) {
+                    int i = this.unknowns[k];
+                    this.yiArray[i] = vapourMoles[k]/vapourFlow;
+                    this.xiArray[i] = (this.feedMoles[i] - vapourMoles[k])/liquidFlow;
+               }
+
+               if (dydx == null) {
+                    this.state.calculateLnFugacityCoefficients(vleModel);
+                    return vapourFlow;
+               }
+
+               this.state.calculateLnFugacityCoefficients(vleModel, this.dlnPhiLiquiddn, this.dlnPhiVapourdn, null, null);
+
+               for (int k=0; k<this.unknowns.length; k++) {
+                    int i = this.unknowns[k];
+                    for (int m=0; m<this.unknowns.length; m++) {
+                         int j = this.unknowns[m];
+                         dydx[k][m] = (this.dlnPhiVapourdn[i][j] - 1)/vapourFlow + (this.dlnPhiLiquiddn[i][j] - 1)/liquidFlow;
+                    }
+                    dydx[k][k] += 1/vapourMoles[k] + 1/(this.feedMoles[i] - vapourMoles[k]);
+               }
+
+               return vapourFlow;
+          }
+     }
+
+}//End of NewtonFlash class
@@ -0,0 +1,257 @@
+import customExceptions.NotFlashable;
+
+/**
+ * Michelsen's tangent plane stability test for a feed at a known temperature and pressure.
+ * The feed is unstable, and splits into a liquid and a vapour, if some trial phase w has a negative tangent plane distance
+ * tm(w) = sum(wi*(ln(wi) + ln(phi i(w)) - ln(zi) - ln(phi i(z)))).
+ * The stationary points of tm are found by successive substitution on ln(Wi) = ln(zi) + ln(phi i(z)) - ln(phi i(w)), with w = W/sum(W),
+ * once from a vapour-like trial phase (Wi = zi*Ki) and once from a liquid-like one (Wi = zi/Ki), starting from the Wilson K values.
+ * At a stationary point tm = 1-sum(W), so the feed is unstable if sum(W) &gt; 1 for either trial phase.
+ * For a model whose ln(phi) doesn't depend on the composition, the two sums are the bubble sum(zi*Ki) and the dew sum(zi/Ki).
+ * The trial phases that were found are also a much better first guess for the K values of a flash than the Wilson K values.
+ * Non-condensable species are never in the liquid-like trial phase and always get NON_CONDENSABLE_K.
+ */
+public class PhaseStabilityAnalysis
+{
+
+
+     public static final double DEFAULT_TOLERANCE = 1e-8;  //on the change in ln(Wi) from one iteration to the next
+     public static final int DEFAULT_MAX_ITERATIONS = 1000;
+     private static final double TRIVIAL_TOLERANCE = 1e-4;  //a trial phase this close to the feed (in ln(wi)) is the feed itself
+     private static final double INSTABILITY_TOLERANCE = 1e-8;  //how far below 0 tm has to be before the feed is called unstable
+
+     private boolean stable;
+     private boolean feedLiquid;
+     private double vapourTrialDistance;
+     private double liquidTrialDistance;
+     private double[] ki;
+
+
+//---------------------------------------------CONSTRUCTORS------------------------------------------------------------
+
+
+     /**
+      * Only made by analyse.
+      */
+     private PhaseStabilityAnalysis(boolean stable, boolean feedLiquid, double vapourTrialDistance, double liquidTrialDistance, double[] ki)
+     {
+          this.stable = stable;
+          this.feedLiquid = feedLiquid;
+          this.vapourTrialDistance = vapourTrialDistance;
+          this.liquidTrialDistance = liquidTrialDistance;
+          this.ki = ki;
+     }
+
+
+//-------------------------------------------------METHODS-------------------------------------------------------------
+
+
+     /**
+      * Tests whether a feed splits into two phases, with the default tolerance.
+      * @param vleModel The model that gives ln(phi).
+      * @param components The species in the feed.
+      * @param moleFractionsFeed The feed mole fractions (zi).
+      * @param temperature The temperature in K.
+      * @param pressure The pressure in Pa.
+      * @return Whether the feed is stable, and the K values to start a flash from if it isn't.
+      * @throws NotFlashable if the model can't be evaluated for the feed or a trial phase.
+      */
+     public static PhaseStabilityAnalysis analyse(VLEModel vleModel, ComponentSet components, double[] moleFractionsFeed,
+                                                  double temperature, double pressure) throws NotFlashable
+     {
+          return analyse(vleModel, components, moleFractionsFeed, temperature, pressure, DEFAULT_TOLERANCE, DEFAULT_MAX_ITERATIONS);
+     }
+
+
+     /**
+      * Tests whether a feed splits into two phases.
+      * @param vleModel The model that gives ln(phi).
+      * @param components The species in the feed.
+      * @param moleFractionsFeed The feed mole fractions (zi).
+      * @param temperature The temperature in K.
+      * @param pressure The pressure in Pa.
+      * @param tolerance The largest change in ln(Wi) accepted as converged.
+      * @param maxIt The maximum number of iterations for each trial phase.
+      * @return Whether the feed is stable, and the K values to start a flash from if it isn't.
+      * @throws NotFlashable if the model can't be evaluated for the feed or a trial phase.
+      */
+     public static PhaseStabilityAnalysis analyse(VLEModel vleModel, ComponentSet components, double[] moleFractionsFeed,
+                                                  double temperature, double pressure, double tolerance, int maxIt) throws NotFlashable
+     {
+          int n = components.getNumComponents();
+          double[] lnPhi = new double[n];
+          double[] feedPotential = new double[n];  //di = ln(zi) + ln(phi i(z))
+
+          //The feed is whichever phase has the lower Gibbs energy, sum(zi*ln(phi i))
+          vleModel.calculateLnFugacityCoefficients(components, temperature, pressure, moleFractionsFeed, true, 0, feedPotential);
+          vleModel.calculateLnFugacityCoefficients(components, temperature, pressure, moleFractionsFeed, false, 0, lnPhi);
+          double liquidGibbs = 0;
+          double vapourGibbs = 0;
+          for (int i=0; i<n; i++) {
+               if (moleFractionsFeed[i] > 0) {
+                    liquidGibbs += moleFractionsFeed[i]*feedPotential[i];
+                    vapourGibbs += moleFractionsFeed[i]*lnPhi[i];
+               }
+          }
+          boolean feedLiquid = liquidGibbs < vapourGibbs;
+          for (int i=0; i<n; i++) {
+               if (moleFractionsFeed[i] > 0)
+                    feedPotential[i] = Math.log(moleFractionsFeed[i]) + (feedLiquid ? feedPotential[i] : lnPhi[i]);
+          }
+
+          double[] wilsonKi = new double[n];
+          (new WilsonSRKModel()).calculateKi(components, temperature, pressure, null, null, wilsonKi);
+
+          double[] vapourTrial = new double[n];
+          double[] liquidTrial = new double[n];
+          double[] trialMoleFractions = new double[n];
+          double vapourTrialDistance = findStationaryPoint(vleModel, components, moleFractionsFeed, temperature, pressure, feedPotential,
+                                                           wilsonKi, false, tolerance, maxIt, vapourTrial, trialMoleFractions, lnPhi);
+          double liquidTrialDistance = findStationaryPoint(vleModel, components, moleFractionsFeed, temperature, pressure, feedPotential,
+                                                           wilsonKi, true, tolerance, maxIt, liquidTrial, trialMoleFractions, lnPhi);
+
+          boolean vapourUnstable = vapourTrialDistance < -INSTABILITY_TOLERANCE;
+          boolean liquidUnstable = liquidTrialDistance < -INSTABILITY_TOLERANCE;
+          if (!vapourUnstable && !liquidUnstable)
+               return new PhaseStabilityAnalysis(true, feedLiquid, vapourTrialDistance, liquidTrialDistance, null);
+
+          //Ki = yi/xi, with the feed standing in for whichever phase wasn't found
+          double vapourSum = vapourUnstable ? 1-vapourTrialDistance : 1;
+          double liquidSum = liquidUnstable ? 1-liquidTrialDistance : 1;
+          double[] ki = new double[n];
+          for (int i=0; i<n; i++) {
+               double y = vapourUnstable ? vapourTrial[i]/vapourSum : moleFractionsFeed[i];
+               double x = liquidUnstable ? liquidTrial[i]/liquidSum : moleFractionsFeed[i];
+
+               if (!components.getIsCondensable(i))
+                    ki[i] = VLEModel.NON_CONDENSABLE_K;
+               else if (x > 0 && y > 0)
+                    ki[i] = y/x;
+               else
+                    ki[i] = wilsonKi[i];  //not in the feed
+          }
+
+          return new PhaseStabilityAnalysis(false, feedLiquid, vapourTrialDistance, liquidTrialDistance, ki);
+     }
+
+
+     /**
+      * Successive substitution for a stationary point of the tangent plane distance.
+      * @param feedPotential ln(zi) + ln(phi i(z)).
+      * @param isLiquid true for the liquid-like trial phase, false for the vapour-like one.
+      * @param trial Filled with the Wi at the stationary point.
+      * @param trialMoleFractions Scratch space for wi.
+      * @param lnPhi Scratch space for ln(phi i(w)).
+      * @return tm = 1-sum(W) at the stationary point, or 0 if the trial phase went to the feed (the trivial solution) or didn't converge.
+      */
+     private static double findStationaryPoint(VLEModel vleModel, ComponentSet components, double[] moleFractionsFeed, double temperature,
+                                               double pressure, double[] feedPotential, double[] wilsonKi, boolean isLiquid,
+                                               double tolerance, int maxIt, double[] trial, double[] trialMoleFractions,
+                                               double[] lnPhi) throws NotFlashable
+     {
+          int n = components.getNumComponents();
+          for (int i=0; i<n; i++) {
+               if (moleFractionsFeed[i] == 0 || (isLiquid && !components.getIsCondensable(i)))
+                    trial[i] = 0;
+               else if (!components.getIsCondensable(i))
+                    trial[i] = moleFractionsFeed[i];
+               else
+                    trial[i] = isLiquid ? moleFractionsFeed[i]/wilsonKi[i] : moleFractionsFeed[i]*wilsonKi[i];
+          }
+
+          double previousZ = 0;
+          for (int iter=0; iter<maxIt; iter++) {
+               double sum = 0;
+               for (int i=0; i<n; i++)
+                    sum += trial[i];
+               for (int i=0; i<n; i++)
+                    trialMoleFractions[i] = trial[i]/sum;
+
+               previousZ = vleModel.calculateLnFugacityCoefficients(components, temperature, pressure, trialMoleFractions, isLiquid, previousZ, lnPhi);
+
+               double maxChange = 0;
+               double maxDistanceFromFeed = 0;
+               sum = 0;
+               for (int i=0; i<n; i++) {
+                    if (trial[i] == 0)
+                         continue;
+
+                    double lnW = feedPotential[i] - lnPhi[i];
+                    maxChange = Math.max(maxChange, Math.abs(lnW - Math.log(trial[i])));
+                    trial[i] = Math.exp(lnW);
+                    sum += trial[i];
+
+                    maxDistanceFromFeed = Math.max(maxDistanceFromFeed, Math.abs(Math.log(trialMoleFractions[i]/moleFractionsFeed[i])));
+               }
+
+               if (maxDistanceFromFeed < TRIVIAL_TOLERANCE)
+                    return 0;
+               if (!(maxChange > tolerance))
+                    return 1-sum;  //also stops on NaN, which then doesn't count as unstable
+          }
+
+          return 0;
+     }
+
+
+     /**
+      * @return true if the feed stays as one phase.
+      */
+     public boolean isStable()
+     {
+          return this.stable;
+     }
+
+
+     /**
+      * @return true if the feed, as one phase, is a liquid. Only meaningful for a stable feed.
+      */
+     public boolean isFeedLiquid()
+     {
+          return this.feedLiquid;
+     }
+
+
+     /**
+      * @return tm at the stationary point found from the vapour-like trial phase. Negative means unstable.
+      */
+     public double getVapourTrialDistance()
+     {
+          return this.vapourTrialDistance;
+     }
+
+
+     /**
+      * @return tm at the stationary point found from the liquid-like trial phase. Negative means unstable.
+      */
+     public double getLiquidTrialDistance()
+     {
+          return this.liquidTrialDistance;
+     }
+
+
+     /**
+      * @return K values from the trial phases, to start a flash from. null if the feed is stable.
+      */
+     public double[] getKi()
+     {
+          return (this.ki == null) ? null : this.ki.clone();
+     }
+
+
+     /**
+      * Throws the same NotFlashable the flash cases have always thrown for a feed that doesn't split.
+      * @throws NotFlashable if the feed is stable, saying which side of the two phase region it is on.
+      */
+     public void requireTwoPhases() throws NotFlashable
+     {
+          if (!this.stable)
+               return;
+
+          if (this.feedLiquid)
+               throw new NotFlashable("System not solved...\nThe operating pressure is above the bubble pressure for this system.");
+          else
+               throw new NotFlashable("System not solved...\nThe operating pressure is below the dew pressure for this system.");
+     }
+
+}//End of PhaseStabilityAnalysis class
@@ -0,0 +1,25 @@
+/**
+ * Calculates Ki Values using the original Redlich-Kwong Equations of State
+ * u = 1, w = 0 and alpha = sqrt(Tc/T).
+ */
+public class RKModel extends CubicEOSModel
+{
+
+
+     /**
+      * Every binary interaction parameter is 0.
+      */
+     public RKModel() {
+          this(null);
+     }
+
+     /**
+      * Uses the binary interaction parameters in the table. Pairs that aren't in the table have kij = 0.
+      * @param kijTable The binary interaction parameters.
+      */
+     public RKModel(BinaryInteractionTable kijTable) {
+          super(1, 0, 0.42748, 0.08664, new RedlichKwongAlphaFunction(), kijTable);
+     }
+
+
+}
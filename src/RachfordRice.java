@@ -0,0 +1,134 @@
+/**
+ * Solves the Rachford-Rice equation for the vapour fraction psi = V/F:
+ * f(psi) = sum(zi*(Ki-1)/(1+psi*(Ki-1))) = 0
+ * f is strictly decreasing between its asymptotes, so the root is found with Newton's method,
+ * kept inside a bracket that shrinks with every evaluation and falls back to bisection if a step leaves it.
+ * The bracket starts from the Leibovici-Neoschil window, which is much tighter than the asymptotes:
+ * (Ki*zi-1)/(Ki-1) &lt;= psi for every Ki &gt; 1, and psi &lt;= (1-zi)/(1-Ki) for every Ki &lt; 1.
+ * Non-condensable species (Ki = VLEModel.NON_CONDENSABLE_K) are handled as an infinite K,
+ * so their term is zi/psi and they can never be in the liquid.
+ * Everything works on primitive arrays and nothing is allocated.
+ */
+public class RachfordRice
+{
+
+
+     public static final double DEFAULT_TOLERANCE = 1e-10;
+     public static final int DEFAULT_MAX_ITERATIONS = 100;
+
+
+//-------------------------------------------------METHODS-------------------------------------------------------------
+
+
+     /**
+      * Solves for the vapour fraction with the default tolerance.
+      * @param z The overall mole fractions.
+      * @param k The K values. Non-condensable species have VLEModel.NON_CONDENSABLE_K.
+      * @return psi = V/F. 0 if the feed is at or below its bubble point, 1 if it is at or above its dew point.
+      */
+     public static double solve(double[] z, double[] k)
+     {
+          return solve(z, k, DEFAULT_TOLERANCE, DEFAULT_MAX_ITERATIONS);
+     }
+
+
+     /**
+      * Solves for the vapour fraction.
+      * @param z The overall mole fractions.
+      * @param k The K values. Non-condensable species have VLEModel.NON_CONDENSABLE_K.
+      * @param tolerance The absolute tolerance on psi.
+      * @param maxIt The maximum number of iterations.
+      * @return psi = V/F. 0 if the feed is at or below its bubble point, 1 if it is at or above its dew point.
+      */
+     public static double solve(double[] z, double[] k, double tolerance, int maxIt)
+     {
+          //f(0) = sum(zi*Ki)-1 and f(1) = 1-sum(zi/Ki). A non-condensable species makes f(0) infinite.
+          double bubbleSum = 0;
+          double dewSum = 0;
+          boolean hasNonCondensable = false;
+
+          //The Leibovici-Neoschil window, limited to [0,1]
+          double lower = 0;
+          double upper = 1;
+
+          for (int i=0; i<z.length; i++) {
+               if (z[i] == 0)
+                    continue;
+
+               if (isNonCondensable(k[i])) {
+                    hasNonCondensable = true;
+                    lower = Math.max(lower, z[i]);
+                    continue;
+               }
+
+               bubbleSum += z[i]*k[i];
+               dewSum += z[i]/k[i];
+
+               if (k[i] > 1)
+                    lower = Math.max(lower, (k[i]*z[i]-1)/(k[i]-1));
+               else if (k[i] < 1)
+                    upper = Math.min(upper, (1-z[i])/(1-k[i]));
+          }
+
+          if (!hasNonCondensable && bubbleSum <= 1)
+               return 0;  //subcooled liquid
+          if (dewSum <= 1)
+               return 1;  //superheated vapour
+
+          if (upper <= lower)
+               return 0.5*(lower+upper);  //only possible through round-off, the window has closed on the root
+
+          double psi = 0.5*(lower+upper);
+          for (int iter=0; iter<maxIt; iter++) {
+               double f = 0;
+               double df = 0;
+               for (int i=0; i<z.length; i++) {
+                    if (z[i] == 0)
+                         continue;
+
+                    if (isNonCondensable(k[i])) {
+                         f += z[i]/psi;
+                         df -= z[i]/(psi*psi);
+                    }
+                    else {
+                         double kMinusOne = k[i]-1;
+                         double denominator = 1 + psi*kMinusOne;
+                         double term = z[i]*kMinusOne/denominator;
+                         f += term;
+                         df -= term*kMinusOne/denominator;
+                    }
+               }
+
+               if (f == 0)
+                    return psi;
+
+               //f is decreasing, so the sign says which side of the root psi is on
+               if (f > 0)
+                    lower = psi;
+               else
+                    upper = psi;
+
+               double psiNew = psi - f/df;
+               if (!(psiNew > lower && psiNew < upper))
+                    psiNew = 0.5*(lower+upper);
+
+               if (Math.abs(psiNew-psi) <= tolerance || upper-lower <= tolerance)
+                    return psiNew;
+
+               psi = psiNew;
+          }
+
+          return psi;
+     }
+
+
+     /**
+      * @param k A K value.
+      * @return true if the K value is the one given to species that can't condense.
+      */
+     private static boolean isNonCondensable(double k)
+     {
+          return k >= VLEModel.NON_CONDENSABLE_K;
+     }
+
+}//End of RachfordRice class
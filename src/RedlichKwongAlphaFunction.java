@@ -0,0 +1,20 @@
+/**
+ * The original Redlich-Kwong temperature dependence, alpha = 1/sqrt(T/Tc).
+ * It doesn't use the accentric factor.
+ */
+public class RedlichKwongAlphaFunction implements AlphaFunction
+{
+     
+     
+     public double calculateSqrtAlpha(double temperature, double criticalTemperature, double accentricFactor)
+     {
+          return Math.pow(temperature/criticalTemperature, -0.25);
+     }
+     
+     
+     public double calculatedSqrtAlphadT(double temperature, double criticalTemperature, double accentricFactor)
+     {
+          return -0.25*Math.pow(temperature/criticalTemperature, -1.25)/criticalTemperature;
+     }
+     
+}//End of RedlichKwongAlphaFunction class
@@ -0,0 +1,25 @@
+/**
+ * Calculates Ki Values using the Soave-Redlich-Kwong Equations of State
+ * u = 1, w = 0 and the Soave alpha function.
+ */
+public class SRKModel extends CubicEOSModel
+{
+
+
+     /**
+      * Every binary interaction parameter is 0.
+      */
+     public SRKModel() {
+          this(null);
+     }
+
+     /**
+      * Uses the binary interaction parameters in the table. Pairs that aren't in the table have kij = 0.
+      * @param kijTable The binary interaction parameters.
+      */
+     public SRKModel(BinaryInteractionTable kijTable) {
+          super(1, 0, 0.42748, 0.08664, new SoaveAlphaFunction(0.480, 1.574, -0.176), kijTable);
+     }
+
+
+}
@@ -0,0 +1,249 @@
+import customExceptions.NotFlashable;
+
+/**
+ * Finds the bubble and dew temperatures of a mixture at a known pressure.
+ * At the bubble point the liquid is the feed (x = z) and f(T) = ln(sum(zi*Ki)) = 0, at the dew point the vapour is the feed (y = z)
+ * and f(T) = ln(sum(zi/Ki)) = 0. Both are solved with Newton's method in 1/T, where ln(Ki) is nearly linear,
+ * using the temperature derivatives of ln(phi) from the VLE model. The incipient phase is updated from the same K values every iteration,
+ * so the composition and the temperature converge together.
+ * The first guess comes from the Wilson K values, whose saturation temperature is found the same way without calling the model at all.
+ * Non-condensable species never condense: they make the dew sum smaller, and a mixture with any of them has no bubble point.
+ */
+public class SaturationPointSolver
+{
+
+
+     public static final double DEFAULT_TOLERANCE = 1e-6;  //K
+     public static final int DEFAULT_MAX_ITERATIONS = 50;
+     public static final double MIN_TEMPERATURE = 100;  //K, the low end of the two phase range of a feed without a bubble point
+     private static final double MAX_STEP = 0.1;  //the largest change in 1/T per iteration, as a fraction of 1/T
+
+
+//-------------------------------------------------METHODS-------------------------------------------------------------
+
+
+     /**
+      * Finds the bubble temperature with the default tolerance.
+      * @param vleModel The model that gives ln(phi).
+      * @param components The species in the mixture.
+      * @param moleFractions The mole fractions of the mixture (zi).
+      * @param pressure The pressure in Pa.
+      * @return The bubble temperature in K.
+      * @throws NotFlashable if there is a non-condensable species, or the temperature can't be found.
+      */
+     public static double bubbleTemperature(VLEModel vleModel, ComponentSet components, double[] moleFractions, double pressure) throws NotFlashable
+     {
+          return solve(vleModel, components, moleFractions, pressure, true, DEFAULT_TOLERANCE, DEFAULT_MAX_ITERATIONS);
+     }
+
+
+     /**
+      * Finds the dew temperature with the default tolerance.
+      * @param vleModel The model that gives ln(phi).
+      * @param components The species in the mixture.
+      * @param moleFractions The mole fractions of the mixture (zi).
+      * @param pressure The pressure in Pa.
+      * @return The dew temperature in K.
+      * @throws NotFlashable if nothing in the mixture can condense, or the temperature can't be found.
+      */
+     public static double dewTemperature(VLEModel vleModel, ComponentSet components, double[] moleFractions, double pressure) throws NotFlashable
+     {
+          return solve(vleModel, components, moleFractions, pressure, false, DEFAULT_TOLERANCE, DEFAULT_MAX_ITERATIONS);
+     }
+
+
+     /**
+      * Finds the temperature range an adiabatic flash has to be in, from the bubble temperature to the dew temperature.
+      * A feed with non-condensable species has no bubble point and stays two phase all the way down,
+      * so the range starts from MIN_TEMPERATURE instead.
+      * @param vleModel The model that gives ln(phi).
+      * @param components The species in the mixture.
+      * @param moleFractions The mole fractions of the mixture (zi).
+      * @param pressure The pressure in Pa.
+      * @return an array with [bubble Temp, dew Temp]
+      * @throws NotFlashable if the saturation temperatures can't be found
+      */
+     public static double[] twoPhaseRange(VLEModel vleModel, ComponentSet components, double[] moleFractions, double pressure) throws NotFlashable
+     {
+          boolean hasNonCondensable = false;
+          for(int i=0; i<components.getNumComponents(); i++) {
+               if(!components.getIsCondensable(i) && moleFractions[i] > 0)
+                    hasNonCondensable = true;
+          }
+
+          double[] toReturn = new double[2];
+          toReturn[0] = hasNonCondensable ? MIN_TEMPERATURE : bubbleTemperature(vleModel, components, moleFractions, pressure);
+          toReturn[1] = dewTemperature(vleModel, components, moleFractions, pressure);
+
+          return toReturn;
+     }
+
+
+     /**
+      * Checks a flash temperature against the range from twoPhaseRange. The ends of the range are only known to DEFAULT_TOLERANCE,
+      * so a temperature that close outside of it still counts.
+      * @param temperature The flash temperature in K.
+      * @param range [bubble Temp, dew Temp]
+      * @return true if the temperature is in the range.
+      */
+     public static boolean isInTwoPhaseRange(double temperature, double[] range)
+     {
+          return temperature >= range[0] - DEFAULT_TOLERANCE && temperature <= range[1] + DEFAULT_TOLERANCE;
+     }
+
+
+     /**
+      * Finds the bubble or dew temperature.
+      * @param vleModel The model that gives ln(phi).
+      * @param components The species in the mixture.
+      * @param moleFractions The mole fractions of the mixture (zi).
+      * @param pressure The pressure in Pa.
+      * @param bubble true for the bubble temperature, false for the dew temperature.
+      * @param tolerance The largest change in T accepted as converged, in K.
+      * @param maxIt The maximum number of Newton iterations.
+      * @return The saturation temperature in K.
+      * @throws NotFlashable if the saturation point doesn't exist, or Newton's method doesn't converge.
+      */
+     public static double solve(VLEModel vleModel, ComponentSet components, double[] moleFractions, double pressure,
+                                boolean bubble, double tolerance, int maxIt) throws NotFlashable
+     {
+          int n = components.getNumComponents();
+          boolean hasCondensable = false;
+          for (int i=0; i<n; i++) {
+               if (moleFractions[i] == 0)
+                    continue;
+               if (components.getIsCondensable(i))
+                    hasCondensable = true;
+               else if (bubble)
+                    throw new NotFlashable("A mixture with a non-condensable components has no bubble point.");
+          }
+          if (!hasCondensable)
+               throw new NotFlashable("A mixture without a condensable components has no dew point.");
+
+          double temperature = wilsonTemperature(components, moleFractions, pressure, bubble);
+
+          //The feed is one phase and the other (incipient) phase starts from the Wilson K values
+          double[] incipient = new double[n];
+          double[] lnPhiFeed = new double[n];
+          double[] lnPhiIncipient = new double[n];
+          double[] dlnPhiFeeddT = new double[n];
+          double[] dlnPhiIncipientdT = new double[n];
+          (new WilsonSRKModel()).calculateKi(components, temperature, pressure, null, null, incipient);
+          for (int i=0; i<n; i++) {
+               if (!components.getIsCondensable(i))
+                    incipient[i] = 0;
+               else
+                    incipient[i] = bubble ? moleFractions[i]*incipient[i] : moleFractions[i]/incipient[i];
+          }
+          normalise(incipient);
+
+          double feedZ = 0;
+          double incipientZ = 0;
+          for (int iter=0; iter<maxIt; iter++) {
+               feedZ = vleModel.calculateLnFugacityCoefficients(components, temperature, pressure, moleFractions, bubble, feedZ,
+                                                                lnPhiFeed, null, dlnPhiFeeddT);
+               incipientZ = vleModel.calculateLnFugacityCoefficients(components, temperature, pressure, incipient, !bubble, incipientZ,
+                                                                     lnPhiIncipient, null, dlnPhiIncipientdT);
+
+               //sum and d(sum)/dT of zi*Ki or zi/Ki, with the new incipient phase in the same pass
+               double sum = 0;
+               double dSumdT = 0;
+               for (int i=0; i<n; i++) {
+                    if (!components.getIsCondensable(i) || moleFractions[i] == 0) {
+                         incipient[i] = 0;
+                         continue;
+                    }
+
+                    //ln(Ki) = ln(phi i liquid) - ln(phi i vapour), and the feed is the liquid at the bubble point
+                    double lnK = bubble ? lnPhiFeed[i] - lnPhiIncipient[i] : lnPhiIncipient[i] - lnPhiFeed[i];
+                    double dlnKdT = bubble ? dlnPhiFeeddT[i] - dlnPhiIncipientdT[i] : dlnPhiIncipientdT[i] - dlnPhiFeeddT[i];
+                    double term = bubble ? moleFractions[i]*Math.exp(lnK) : moleFractions[i]*Math.exp(-lnK);
+
+                    incipient[i] = term;
+                    sum += term;
+                    dSumdT += bubble ? term*dlnKdT : -term*dlnKdT;
+               }
+               normalise(incipient);
+
+               //Newton's method on f = ln(sum) in u = 1/T, where df/du = -T^2*df/dT
+               double f = Math.log(sum);
+               double dfdu = -temperature*temperature*dSumdT/sum;
+               if (Double.isNaN(f) || !(dfdu != 0))
+                    throw new NotFlashable("The " + (bubble ? "bubble" : "dew") + " temperature could not be found.");
+
+               double u = 1/temperature;
+               double step = -f/dfdu;
+               if (Math.abs(step) > MAX_STEP*u)
+                    step = Math.signum(step)*MAX_STEP*u;
+               double newTemperature = 1/(u + step);
+
+               if (Math.abs(newTemperature - temperature) <= tolerance)
+                    return newTemperature;
+               temperature = newTemperature;
+          }
+
+          throw new NotFlashable("The " + (bubble ? "bubble" : "dew") + " temperature did not converge in " + maxIt + " iterations.");
+     }
+
+
+     /**
+      * The saturation temperature from the Wilson K values, ln(Ki) = ln(Pci/P) + 5.37(1+wi)(1-Tci/T).
+      * ln(Ki) is linear in 1/T, so ln(sum(zi*Ki)) is convex in 1/T and Newton's method converges from any start.
+      * Starts from the mole fraction average of the pure component Wilson saturation temperatures.
+      * @return The Wilson bubble or dew temperature in K.
+      */
+     private static double wilsonTemperature(ComponentSet components, double[] moleFractions, double pressure, boolean bubble)
+     {
+          double guess = 0;
+          double condensableFraction = 0;
+          for (int i=0; i<components.getNumComponents(); i++) {
+               if (!components.getIsCondensable(i))
+                    continue;
+               double a = 5.37*(1+components.getAccentricFactor(i));
+               double Tc = components.getCriticalTemperature(i);
+               guess += moleFractions[i]*Tc/(1 - Math.log(pressure/components.getCriticalPressure(i))/a);
+               condensableFraction += moleFractions[i];
+          }
+          double u = condensableFraction/guess;
+
+          for (int iter=0; iter<DEFAULT_MAX_ITERATIONS; iter++) {
+               double sum = 0;
+               double dSumdu = 0;
+               for (int i=0; i<components.getNumComponents(); i++) {
+                    if (!components.getIsCondensable(i) || moleFractions[i] == 0)
+                         continue;
+                    double a = 5.37*(1+components.getAccentricFactor(i));
+                    double Tc = components.getCriticalTemperature(i);
+                    double lnK = Math.log(components.getCriticalPressure(i)/pressure) + a*(1 - Tc*u);
+                    double dlnKdu = -a*Tc;
+
+                    double term = bubble ? moleFractions[i]*Math.exp(lnK) : moleFractions[i]*Math.exp(-lnK);
+                    sum += term;
+                    dSumdu += bubble ? term*dlnKdu : -term*dlnKdu;
+               }
+
+               double step = -Math.log(sum)*sum/dSumdu;
+               if (!(u + step > 0))
+                    step = -0.5*u;  //can only happen far from the root, on the first step
+               u += step;
+               if (Math.abs(step) <= 1e-12*u)
+                    break;
+          }
+
+          return 1/u;
+     }
+
+
+     /**
+      * Scales an array so that it adds up to 1.
+      */
+     private static void normalise(double[] moleFractions)
+     {
+          double sum = 0;
+          for (int i=0; i<moleFractions.length; i++)
+               sum += moleFractions[i];
+          for (int i=0; i<moleFractions.length; i++)
+               moleFractions[i] /= sum;
+     }
+
+}//End of SaturationPointSolver class
@@ -0,0 +1,52 @@
+/**
+ * The Soave alpha function used by the Peng-Robinson and Soave-Redlich-Kwong equations of state:
+ * sqrt(alpha) = 1 + m*(1 - sqrt(T/Tc)), where m = m0 + m1*w + m2*w^2.
+ */
+public class SoaveAlphaFunction implements AlphaFunction
+{
+     
+     
+     private double m0, m1, m2;
+     
+     
+//---------------------------------------------CONSTRUCTORS------------------------------------------------------------
+     
+     
+     /**
+      * @param m0 The constant term of m.
+      * @param m1 The coefficient of the accentric factor in m.
+      * @param m2 The coefficient of the accentric factor squared in m.
+      */
+     public SoaveAlphaFunction(double m0, double m1, double m2)
+     {
+          this.m0 = m0;
+          this.m1 = m1;
+          this.m2 = m2;
+     }
+     
+     
+//-------------------------------------------------METHODS-------------------------------------------------------------
+     
+     
+     public double calculateSqrtAlpha(double temperature, double criticalTemperature, double accentricFactor)
+     {
+          return 1 + calculateM(accentricFactor)*(1 - Math.sqrt(temperature/criticalTemperature));
+     }
+     
+     
+     public double calculatedSqrtAlphadT(double temperature, double criticalTemperature, double accentricFactor)
+     {
+          return -calculateM(accentricFactor)/(2*Math.sqrt(temperature*criticalTemperature));
+     }
+     
+     
+     /**
+      * @param w The accentric factor of the species.
+      * @return the slope of sqrt(alpha) against sqrt(T/Tc)
+      */
+     private double calculateM(double w)
+     {
+          return this.m0 + this.m1*w + this.m2*w*w;
+     }
+     
+}//End of SoaveAlphaFunction class
@@ -1,287 +1,414 @@
-import java.util.Arrays;
-
-/**
- * A class representing a stream.
- * Contains a set of species along with flow rates, temperature, and pressure.
- */
-public class Stream implements Cloneable
-{ 
-     //Physical properties of each species
-     private Species[] species;
-     
-     //Component breakdown
-     private double[] molarFlows;
-     private double[] moleFractions;
-     private double totalMolarFlow;
-     
-     //Properties of stream
-     private double temperature;
-     private double pressure;
-     
-      
-     //--------------------------------------------------CONSTRUCTORS---------------------------------------------------
-          
-     /**
-      * Receies an array of @param Species objects, each with physical and thermodynamic properties.
-      * Defined by amount of each component, temperature and pressure of system.
-      * @param species Each species in the stream
-      * @param molarFlows The molar flow of each species in the stream
-      * @param pressure The pressure of the stream
-      * @param temperature The temperature of the stream
-      */    
-     public Stream(Species[] species, double[] molarFlows, double pressure, double temperature) {
-          
-          if (species.length != molarFlows.length) {
-               System.out.println("Error: Array lengths don't match");
-               System.exit(0);
-          }
-          this.species = new Species[species.length];
-          this.molarFlows = new double[molarFlows.length];
-          this.moleFractions = new double[molarFlows.length];
-          for (int i=0;i<species.length;i++) {
-               this.species[i] = species[i];
-               this.molarFlows[i] = molarFlows[i];
-          }
-          
-          this.temperature = temperature;
-          this.pressure = pressure;
-          this.totalMolarFlow = 0; //calculated once molar flows have been assigned
-          
-       
-          //Total molar flow rate calculated from individual flow rates
-          for (int i=0; i<molarFlows.length;i++) {
-               this.totalMolarFlow = this.totalMolarFlow + molarFlows[i];
-          }
-          
-          //Mole Fractions determined based on molar flow rates and total molar flow rate
-          for (int i=0;i<molarFlows.length;i++) {
-            this.moleFractions[i]=this.molarFlows[i]/this.totalMolarFlow;
-          }
-          
-     } //End of constructor
-     
-     //If the user provides the total flow instead of component flows
-      public Stream(Species[] species, double totalMolarFlow, double[] moleFractions, double pressure, double temperature) {
-          
-          if(species.length != moleFractions.length) {
-               System.out.println("Error: Array lengths don't match");
-               System.exit(0);
-          }
-          this.species = new Species[species.length];
-         
-          this.moleFractions = new double[moleFractions.length];
-          for (int i=0;i<species.length;i++) {
-               this.species[i] = species[i];
-               this.moleFractions[i] = moleFractions[i];
-          }
-          
-          this.temperature = temperature;
-          this.pressure = pressure;
-          this.totalMolarFlow = totalMolarFlow; 
-          
-       
-          //Component molar flow rates calculated from total flow rate and component fractions
-          this.molarFlows = new double[species.length];
-          for (int i=0; i<this.molarFlows.length;i++) {
-               this.molarFlows[i] = this.totalMolarFlow*this.moleFractions[i];
-          }
-          
-     } //End of constructor
-    
-      /**
-       * The default constructor
-       * For creating empty streams (outlets) that will be solved
-       * */
-      public Stream() {
-        this.species = new LiquidSpecies[0];
-     
-        //Component breakdown
-        this.molarFlows = new double[0];
-        this.moleFractions = new double[0];
-        totalMolarFlow=0;
-     
-        //Properties of stream
-        this.temperature=0;
-        this.pressure=0;
-      }
-      
-      /**
-      * The copy constructor
-      * @param streamToCopy an object of type Stream
-      */
-     public Stream(Stream streamToCopy) {
-          
-          this.temperature=streamToCopy.temperature;
-          this.pressure=streamToCopy.pressure;
-          this.totalMolarFlow=streamToCopy.totalMolarFlow;
-          
-          this.species = new Species[streamToCopy.species.length];
-          this.molarFlows = new double[streamToCopy.molarFlows.length];
-          this.moleFractions = new double[streamToCopy.moleFractions.length];
-          
-          for (int i=0;i<this.species.length;i++)
-          {
-               this.species[i] = streamToCopy.species[i].clone(); //will make new species objects
-               this.molarFlows[i] = streamToCopy.molarFlows[i];
-               this.moleFractions[i] = streamToCopy.moleFractions[i];
-          }
-          
-     } //End of copy constructor
-     
-     
-     //---------------------------------------------------METHODS-------------------------------------------------------
-     
-     
-     /*
-      * calculates the total enthalpy in J/mol of the stream using the streams temperature
-      * @Return enthalpy of the feed stream in J/s
-      */
-     public double totalEnthalpy() {
-          double totalEnthalpy;
-          double totalMolarEnthalpy = 0;
-                    
-          for (int i=0;i<this.species.length;i++) {
-               totalMolarEnthalpy = totalMolarEnthalpy + this.moleFractions[i]*this.species[i].calcEnthalpy(this.temperature);
-          }
-          
-          totalEnthalpy = totalMolarEnthalpy*this.totalMolarFlow;
-          return totalEnthalpy;//J          
-     }
-     
-     
-//-------------------------------------------------HOUSEKEEPING METHODS-------------------------------------------------
-     
-     
-     public Species[] getSpecies() {
-          Species[] returnSpecies = new Species[this.species.length];
-          
-          for (int i = 0; i< species.length; i++) {
-               returnSpecies[i] = this.species[i].clone();
-          }
-          
-          return returnSpecies;
-     }
-     public double[] getMolarFlows() {
-          return (Arrays.copyOf(this.molarFlows, this.molarFlows.length));
-     }  
-     public double[] getMoleFractions() {
-          return (Arrays.copyOf(this.moleFractions, this.moleFractions.length));
-     }
-     public double getTotalMolarFlow() {
-          return this.totalMolarFlow;
-     }
-     public double getTemperature() {
-          return this.temperature;
-     }
-     public double getPressure() {
-          return this.pressure;
-     }
-     
-        
-     public void setSpecies(Species[] species) {
-          for (int i=0; i<species.length; i++) {
-               this.species[i] = species[i].clone();
-          }
-     }
-     /**
-      * Sets the molar flow rates of each species, and recalculates the corresponding total molar flow and mole fractions
-      * @param molarFlows The incoming array of molar flows
-      */
-     public void setMolarFlow(double[] molarFlows) {
-          this.totalMolarFlow = 0;   
-          for(int i=0;i<molarFlows.length;i++) {
-               this.molarFlows[i]=molarFlows[i];
-               this.totalMolarFlow = this.totalMolarFlow + molarFlows[i];
-          }   
-          for(int i=0; i<molarFlows.length;i++) {
-               this.moleFractions[i] = this.molarFlows[i]/this.totalMolarFlow;
-          }
-     }
-     
-     /**
-      * Sets the mole fraction of each species and recalculates the molar flows.
-      * @param moleFractions The incomming array of mole fractions
-      */
-     public void setMoleFractions(double[] moleFractions) {
-          this.moleFractions = Arrays.copyOf(moleFractions, moleFractions.length);
-          for(int i=0; i<this.species.length; i++)
-               this.molarFlows[i] = this.totalMolarFlow * this.moleFractions[i];
-     }
-     /**
-      * Sets the total molar flow rate, and recalculates the corresponding individual molar flow rates.
-      * @param totalMolarFlow The incoming total molar flow rate.
-      */
-     public void setTotalMolarFlow(double totalMolarFlow) {
-          this.totalMolarFlow = totalMolarFlow;
-          
-          //Calc new molar flows
-          for(int i=0; i<this.species.length; i++)
-               this.molarFlows[i] = totalMolarFlow * this.moleFractions[i];
-     }
-     public void setTemperature(double temperature) {
-          this.temperature=temperature;
-     } 
-     public void setPressure(double pressure) {
-          this.pressure = pressure;
-     }
-
-     /**
-      * Overriden equals method.
-      * Invokes the equals method from the species class to compare each variable within each species
-      * returns false if any variable is different in value
-      * @param stream the stream that is compared with for equals
-      * @return true if equals, false if not
-      */
-     public boolean equals(Stream stream)
-     {
-          if ((this.species.length!=stream.species.length) || (this.molarFlows.length!=stream.molarFlows.length) || (this.moleFractions.length!=stream.moleFractions.length))
-          {
-               return false;
-          }
-          
-          for (int i=0;i<this.species.length;i++)
-          {
-               boolean isTrue = (this.species[i].equals(stream.species[i]));
-               if (isTrue==false)
-                    return false;
-          }
-          for (int i=0;i<this.molarFlows.length;i++)
-          {
-               if ((this.molarFlows[i] != stream.molarFlows[i]) || (this.moleFractions[i] != stream.moleFractions[i]))
-               {
-                    return false;
-               }
-          }
-          
-          return ((this.temperature==stream.temperature) && (this.pressure==stream.pressure) && (this.totalMolarFlow==stream.totalMolarFlow));
-     }
-     
-     
-     /**
-      * Overriden toString Method
-      * For the species array, only the name is returned, using getName()
-      * @return sends a string containing desired information
-      * Puts molar flow and fraction of each species together
-      */
-     public String toString()
-     {
-          String str;
-          str = "\nTotal Molar Flow= " + this.totalMolarFlow + "\nTemperature= " + this.temperature + "\nPressure= " + this.pressure;
-          for (int i=0;i<this.species.length;i++)
-          {
-               str = str + "\nSpecies " + (i+1) + "=" + this.species[i].getName();
-               str = str + "\n\tMolar Flow=" + this.molarFlows[i];
-               str = str + "\n\tMol Fraction=" + this.moleFractions[i];
-               
-          }
-          
-          
-          return str;
-     }
-     
-
-     public Stream clone()
-     {
-          return new Stream(this);
-     }     
+import java.util.Arrays;
+import customExceptions.NoRootFound;
+
+/**
+ * A class representing a stream.
+ * Contains a set of species along with flow rates, temperature, and pressure.
+ * A stream never changes once it is made. The with methods return a new stream that shares everything that didn't change,
+ * so streams can be handed around without being copied.
+ */
+public class Stream implements Cloneable
+{ 
+     //Physical properties of each species
+     private final Species[] species;
+     private final ComponentSet components; //the constant properties of the same species, built once
+     
+     //Component breakdown. The arrays are never changed or handed out, so streams can share them
+     private final double[] molarFlows;
+     private final double[] moleFractions;
+     private final double totalMolarFlow;
+     
+     //Properties of stream
+     private final double temperature;
+     private final double pressure;
+     
+     private static final double TEMPERATURE_TOLERANCE = 1e-9; //K, for findTemperatureGivenEnthalpy
+     private static final int MAX_TEMPERATURE_ITERATIONS = 50;
+     
+      
+     //--------------------------------------------------CONSTRUCTORS---------------------------------------------------
+          
+     /**
+      * Receies an array of @param Species objects, each with physical and thermodynamic properties.
+      * Defined by amount of each component, temperature and pressure of system.
+      * @param species Each species in the stream
+      * @param molarFlows The molar flow of each species in the stream
+      * @param pressure The pressure of the stream
+      * @param temperature The temperature of the stream
+      */    
+     public Stream(Species[] species, double[] molarFlows, double pressure, double temperature) {
+          
+          if (species.length != molarFlows.length) {
+               System.out.println("Error: Array lengths don't match");
+               System.exit(0);
+          }
+          this.species = new Species[species.length];
+          this.molarFlows = new double[molarFlows.length];
+          this.moleFractions = new double[molarFlows.length];
+          for (int i=0;i<species.length;i++) {
+               this.species[i] = species[i];
+               this.molarFlows[i] = molarFlows[i];
+          }
+          this.components = new ComponentSet(this.species);
+          
+          this.temperature = temperature;
+          this.pressure = pressure;
+          double totalMolarFlow = 0; //calculated once molar flows have been assigned
+          
+       
+          //Total molar flow rate calculated from individual flow rates
+          for (int i=0; i<molarFlows.length;i++) {
+               totalMolarFlow = totalMolarFlow + molarFlows[i];
+          }
+          this.totalMolarFlow = totalMolarFlow;
+          
+          //Mole Fractions determined based on molar flow rates and total molar flow rate
+          for (int i=0;i<molarFlows.length;i++) {
+            this.moleFractions[i]=this.molarFlows[i]/this.totalMolarFlow;
+          }
+          
+     } //End of constructor
+     
+     //If the user provides the total flow instead of component flows
+      public Stream(Species[] species, double totalMolarFlow, double[] moleFractions, double pressure, double temperature) {
+          
+          if(species.length != moleFractions.length) {
+               System.out.println("Error: Array lengths don't match");
+               System.exit(0);
+          }
+          this.species = new Species[species.length];
+         
+          this.moleFractions = new double[moleFractions.length];
+          for (int i=0;i<species.length;i++) {
+               this.species[i] = species[i];
+               this.moleFractions[i] = moleFractions[i];
+          }
+          this.components = new ComponentSet(this.species);
+          
+          this.temperature = temperature;
+          this.pressure = pressure;
+          this.totalMolarFlow = totalMolarFlow; 
+          
+       
+          //Component molar flow rates calculated from total flow rate and component fractions
+          this.molarFlows = new double[species.length];
+          for (int i=0; i<this.molarFlows.length;i++) {
+               this.molarFlows[i] = this.totalMolarFlow*this.moleFractions[i];
+          }
+          
+     } //End of constructor
+    
+      /**
+       * The default constructor
+       * For creating empty streams (outlets) that will be solved
+       * */
+      public Stream() {
+        this.species = new LiquidSpecies[0];
+        this.components = new ComponentSet(this.species);
+     
+        //Component breakdown
+        this.molarFlows = new double[0];
+        this.moleFractions = new double[0];
+        this.totalMolarFlow=0;
+     
+        //Properties of stream
+        this.temperature=0;
+        this.pressure=0;
+      }
+      
+      /**
+      * The copy constructor. Nothing in a stream ever changes, so the copy shares everything with the original.
+      * @param streamToCopy an object of type Stream
+      */
+     public Stream(Stream streamToCopy) {
+          
+          this(streamToCopy.species, streamToCopy.components, streamToCopy.molarFlows, streamToCopy.moleFractions,
+               streamToCopy.totalMolarFlow, streamToCopy.temperature, streamToCopy.pressure);
+          
+     } //End of copy constructor
+     
+     
+     /**
+      * Used by the with methods. The arrays are shared, not copied, so they must not be changed afterwards.
+      */
+     private Stream(Species[] species, ComponentSet components, double[] molarFlows, double[] moleFractions, 
+                    double totalMolarFlow, double temperature, double pressure) {
+          
+          this.species = species;
+          this.components = components;
+          this.molarFlows = molarFlows;
+          this.moleFractions = moleFractions;
+          this.totalMolarFlow = totalMolarFlow;
+          this.temperature = temperature;
+          this.pressure = pressure;
+          
+     } //End of constructor
+     
+     
+     //---------------------------------------------------METHODS-------------------------------------------------------
+     
+     
+     /*
+      * calculates the total enthalpy in J/mol of the stream using the streams temperature
+      * @Return enthalpy of the feed stream in J/s
+      */
+     public double totalEnthalpy() {
+          return this.calcTotalEnthalpy(this.temperature, null);//J          
+     }
+     
+     
+     /**
+      * calculates the total heat capacity of the stream at the streams temperature, the slope of totalEnthalpy
+      * @return heat capacity of the stream in J/s*K
+      */
+     public double totalHeatCapacity() {
+          double totalMolarHeatCapacity = 0;
+          
+          for (int i=0;i<this.species.length;i++) {
+               totalMolarHeatCapacity = totalMolarHeatCapacity + this.moleFractions[i]*this.species[i].calcHeatCapacity(this.temperature);
+          }
+          
+          return totalMolarHeatCapacity*this.totalMolarFlow;
+     }
+     
+     
+     /**
+      * The total enthalpy of the stream at any temperature, with its heat capacity from the same evaluation of each species.
+      * @param temperature the temperature in K
+      * @param totalHeatCapacity If not null, totalHeatCapacity[0] is set to the heat capacity of the stream in J/s*K
+      * @return enthalpy of the stream in J/s
+      */
+     private double calcTotalEnthalpy(double temperature, double[] totalHeatCapacity) {
+          double totalMolarEnthalpy = 0;
+          double totalMolarHeatCapacity = 0;
+          
+          for (int i=0;i<this.species.length;i++) {
+               totalMolarEnthalpy = totalMolarEnthalpy + this.moleFractions[i]*this.species[i].calcEnthalpy(temperature, totalHeatCapacity);
+               if (totalHeatCapacity != null)
+                    totalMolarHeatCapacity = totalMolarHeatCapacity + this.moleFractions[i]*totalHeatCapacity[0];
+          }
+          
+          if (totalHeatCapacity != null)
+               totalHeatCapacity[0] = totalMolarHeatCapacity*this.totalMolarFlow;
+          return totalMolarEnthalpy*this.totalMolarFlow;
+     }
+     
+     
+     /**
+      * Finds the temperature at which totalEnthalpy would equal a given enthalpy, with Newton's method on the heat capacity correlations.
+      * Starts from the streams temperature and leaves this stream as it is.
+      * A step that leaves the range the correlations can be evaluated in is halved until it doesn't.
+      * @param totalEnthalpy the enthalpy of the stream in J/s
+      * @return the temperature in K
+      * @throws NoRootFound if the enthalpy doesn't increase with temperature, or Newton's method doesn't converge
+      */
+     public double findTemperatureGivenEnthalpy(double totalEnthalpy) throws NoRootFound {
+          double[] heatCapacity = new double[1];
+          double temperature = (this.temperature > 0) ? this.temperature : Species.refTemp;
+          
+          double error = this.calcTotalEnthalpy(temperature, heatCapacity) - totalEnthalpy;
+          for (int iter=0; iter<MAX_TEMPERATURE_ITERATIONS; iter++) {
+               if (!(heatCapacity[0] > 0))
+                    throw new NoRootFound("The enthalpy of the stream doesn't increase with temperature.");
+               
+               double step = -error/heatCapacity[0];
+               double newTemperature;
+               double newError;
+               do {
+                    newTemperature = temperature + step;
+                    newError = (newTemperature > 0) ? this.calcTotalEnthalpy(newTemperature, heatCapacity) - totalEnthalpy : Double.NaN;
+                    step = step/2;
+               } while (Double.isNaN(newError) && Math.abs(step) > TEMPERATURE_TOLERANCE);
+               
+               if (Double.isNaN(newError))
+                    break;
+               if (Math.abs(newTemperature - temperature) <= TEMPERATURE_TOLERANCE)
+                    return newTemperature;
+               temperature = newTemperature;
+               error = newError;
+          }
+          
+          throw new NoRootFound("The temperature of the stream could not be found from its enthalpy.");
+     }
+     
+     
+//-------------------------------------------------HOUSEKEEPING METHODS-------------------------------------------------
+     
+     
+     public Species[] getSpecies() {
+          Species[] returnSpecies = new Species[this.species.length];
+          
+          for (int i = 0; i< species.length; i++) {
+               returnSpecies[i] = this.species[i].clone();
+          }
+          
+          return returnSpecies;
+     }
+     /**
+      * @return the constant properties of the species in the stream. Not a copy, since it can't be changed.
+      */
+     public ComponentSet getComponentSet() {
+          return this.components;
+     }
+     public double[] getMolarFlows() {
+          return (Arrays.copyOf(this.molarFlows, this.molarFlows.length));
+     }  
+     public double[] getMoleFractions() {
+          return (Arrays.copyOf(this.moleFractions, this.moleFractions.length));
+     }
+     public double getMolarFlow(int i) {
+          return this.molarFlows[i];
+     }
+     public double getMoleFraction(int i) {
+          return this.moleFractions[i];
+     }
+     public int getNumSpecies() {
+          return this.species.length;
+     }
+     public double getTotalMolarFlow() {
+          return this.totalMolarFlow;
+     }
+     public double getTemperature() {
+          return this.temperature;
+     }
+     public double getPressure() {
+          return this.pressure;
+     }
+     
+     
+     /**
+      * @param species The new species, copied into the new stream.
+      * @return a stream with different species and the same flows, temperature and pressure
+      */
+     public Stream withSpecies(Species[] species) {
+          Species[] newSpecies = new Species[species.length];
+          for (int i=0; i<species.length; i++) {
+               newSpecies[i] = species[i].clone();
+          }
+          
+          return new Stream(newSpecies, new ComponentSet(newSpecies), this.molarFlows, this.moleFractions, 
+                            this.totalMolarFlow, this.temperature, this.pressure);
+     }
+     /**
+      * @param molarFlows The molar flow rates of each species
+      * @return a stream with these molar flows, and the corresponding total molar flow and mole fractions
+      */
+     public Stream withMolarFlows(double[] molarFlows) {
+          double[] newMolarFlows = Arrays.copyOf(molarFlows, molarFlows.length);
+          double[] newMoleFractions = new double[molarFlows.length];
+          double totalMolarFlow = 0;
+          for(int i=0;i<molarFlows.length;i++) {
+               totalMolarFlow = totalMolarFlow + molarFlows[i];
+          }   
+          for(int i=0; i<molarFlows.length;i++) {
+               newMoleFractions[i] = newMolarFlows[i]/totalMolarFlow;
+          }
+          
+          return new Stream(this.species, this.components, newMolarFlows, newMoleFractions, totalMolarFlow, this.temperature, this.pressure);
+     }
+     /**
+      * @param moleFractions The mole fraction of each species
+      * @return a stream with these mole fractions and the same total molar flow, and the corresponding molar flows
+      */
+     public Stream withMoleFractions(double[] moleFractions) {
+          double[] newMoleFractions = Arrays.copyOf(moleFractions, moleFractions.length);
+          double[] newMolarFlows = new double[this.species.length];
+          for(int i=0; i<this.species.length; i++)
+               newMolarFlows[i] = this.totalMolarFlow * newMoleFractions[i];
+          
+          return new Stream(this.species, this.components, newMolarFlows, newMoleFractions, this.totalMolarFlow, this.temperature, this.pressure);
+     }
+     /**
+      * @param totalMolarFlow The total molar flow rate
+      * @return a stream with this total molar flow and the same mole fractions, and the corresponding individual molar flow rates
+      */
+     public Stream withTotalMolarFlow(double totalMolarFlow) {
+          double[] newMolarFlows = new double[this.species.length];
+          for(int i=0; i<this.species.length; i++)
+               newMolarFlows[i] = totalMolarFlow * this.moleFractions[i];
+          
+          return new Stream(this.species, this.components, newMolarFlows, this.moleFractions, totalMolarFlow, this.temperature, this.pressure);
+     }
+     /**
+      * @param totalMolarFlow The total molar flow rate
+      * @param moleFractions The mole fraction of each species
+      * @return a stream with this total molar flow and these mole fractions, and the corresponding molar flows
+      */
+     public Stream withComposition(double totalMolarFlow, double[] moleFractions) {
+          double[] newMoleFractions = Arrays.copyOf(moleFractions, moleFractions.length);
+          double[] newMolarFlows = new double[this.species.length];
+          for(int i=0; i<this.species.length; i++)
+               newMolarFlows[i] = totalMolarFlow * newMoleFractions[i];
+
+          return new Stream(this.species, this.components, newMolarFlows, newMoleFractions, totalMolarFlow, this.temperature, this.pressure);
+     }
+     public Stream withTemperature(double temperature) {
+          return new Stream(this.species, this.components, this.molarFlows, this.moleFractions, this.totalMolarFlow, temperature, this.pressure);
+     } 
+     public Stream withPressure(double pressure) {
+          return new Stream(this.species, this.components, this.molarFlows, this.moleFractions, this.totalMolarFlow, this.temperature, pressure);
+     }
+
+     /**
+      * Overriden equals method.
+      * Invokes the equals method from the species class to compare each variable within each species
+      * returns false if any variable is different in value
+      * @param stream the stream that is compared with for equals
+      * @return true if equals, false if not
+      */
+     public boolean equals(Stream stream)
+     {
+          if ((this.species.length!=stream.species.length) || (this.molarFlows.length!=stream.molarFlows.length) || (this.moleFractions.length!=stream.moleFractions.length))
+          {
+               return false;
+          }
+          
+          for (int i=0;i<this.species.length;i++)
+          {
+               boolean isTrue = (this.species[i].equals(stream.species[i]));
+               if (isTrue==false)
+                    return false;
+          }
+          for (int i=0;i<this.molarFlows.length;i++)
+          {
+               if ((this.molarFlows[i] != stream.molarFlows[i]) || (this.moleFractions[i] != stream.moleFractions[i]))
+               {
+                    return false;
+               }
+          }
+          
+          return ((this.temperature==stream.temperature) && (this.pressure==stream.pressure) && (this.totalMolarFlow==stream.totalMolarFlow));
+     }
+     
+     
+     /**
+      * Overriden toString Method
+      * For the species array, only the name is returned, using getName()
+      * @return sends a string containing desired information
+      * Puts molar flow and fraction of each species together
+      */
+     public String toString()
+     {
+          String str;
+          str = "\nTotal Molar Flow= " + this.totalMolarFlow + "\nTemperature= " + this.temperature + "\nPressure= " + this.pressure;
+          for (int i=0;i<this.species.length;i++)
+          {
+               str = str + "\nSpecies " + (i+1) + "=" + this.species[i].getName();
+               str = str + "\n\tMolar Flow=" + this.molarFlows[i];
+               str = str + "\n\tMol Fraction=" + this.moleFractions[i];
+               
+          }
+          
+          
+          return str;
+     }
+     
+
+     /**
+      * A stream never changes, so it is its own copy.
+      */
+     public Stream clone()
+     {
+          return this;
+     }     
 } //End of class
\ No newline at end of file
@@ -1,9 +1,120 @@
-import customExceptions.NotFlashable;
-/**
- * Model for calculating the K values.
- * Child classes: IdealModel, PRModel, and WilsonSRKModel.
- */
-public abstract class VLEModel
-{
-    public abstract double[] calculateKi(FlashTank flashTank) throws NotFlashable;
-}
\ No newline at end of file
+import customExceptions.NotFlashable;
+import java.util.Arrays;
+/**
+ * Model for calculating the K values.
+ * Child classes: IdealModel, PRModel, and WilsonSRKModel.
+ * Models don't keep any state between calls, everything is passed in explicitly. One instance can be shared by any number of flashes,
+ * including flashes running on different threads.
+ */
+public abstract class VLEModel
+{
+     public static final double NON_CONDENSABLE_K = 1e30; //Just a really high number
+     
+     /**
+      * Calculates the K values for the species in a flash tank, using the flash temperature and pressure and the outlet compositions.
+      * @param flashTank The flash tank being solved.
+      * @return The K values for each species.
+      */
+     public double[] calculateKi(FlashTank flashTank) throws NotFlashable
+     {
+          ComponentSet components = flashTank.getComponentSet();
+          double[] ki = new double[components.getNumComponents()];
+          
+          calculateKi(components, flashTank.getFlashTemp(), flashTank.getPressure(), 
+                      flashTank.getLiquidStream().getMoleFractions(), flashTank.getVapourStream().getMoleFractions(), ki);
+          
+          return ki;
+     }
+     
+     /**
+      * Calculates the K values for the species in a flash tank, warm-started from the compressibility factors of the last call.
+      * Meant for iterative flashes, where the compositions barely change from one iteration to the next.
+      * @param flashTank The flash tank being solved.
+      * @param zRoots The liquid and vapour compressibility factors from the last call, 0 if there weren't any. Updated with the new ones.
+      * @return The K values for each species.
+      */
+     public double[] calculateKi(FlashTank flashTank, double[] zRoots) throws NotFlashable
+     {
+          ComponentSet components = flashTank.getComponentSet();
+          double[] ki = new double[components.getNumComponents()];
+          
+          calculateKi(components, flashTank.getFlashTemp(), flashTank.getPressure(), 
+                      flashTank.getLiquidStream().getMoleFractions(), flashTank.getVapourStream().getMoleFractions(), ki, zRoots, null);
+          
+          return ki;
+     }
+     
+     /**
+      * Calculates the K values for a set of species.
+      * @param components The species, in the same order as the mole fraction arrays.
+      * @param temperature The temperature in K.
+      * @param pressure The pressure in Pa.
+      * @param liquidMoleFractions The mole fractions in the liquid phase (xi).
+      * @param vapourMoleFractions The mole fractions in the vapour phase (yi).
+      * @param ki Filled with the K values for each species. Non-condensable species get NON_CONDENSABLE_K.
+      */
+     public abstract void calculateKi(ComponentSet components, double temperature, double pressure, 
+                                      double[] liquidMoleFractions, double[] vapourMoleFractions, double[] ki) throws NotFlashable;
+     
+     /**
+      * Calculates the K values for a set of species, warm-started from the compressibility factors of the last call.
+      * Models that don't solve an equation of state for Z ignore zRoots and scratch.
+      * @param zRoots The liquid and vapour compressibility factors from the last call, 0 if there weren't any. Updated with the new ones.
+      * @param scratch An array as long as ki that the model can overwrite, so nothing is allocated. Can be null.
+      */
+     public void calculateKi(ComponentSet components, double temperature, double pressure, double[] liquidMoleFractions, 
+                             double[] vapourMoleFractions, double[] ki, double[] zRoots, double[] scratch) throws NotFlashable
+     {
+          calculateKi(components, temperature, pressure, liquidMoleFractions, vapourMoleFractions, ki);
+     }
+     
+     /**
+      * Calculates ln(phi i) for one phase, so that Ki = exp(ln(phi i liquid) - ln(phi i vapour)).
+      * Models that aren't an equation of state put all of ln(Ki) in the liquid and 0 in the vapour.
+      * Non-condensable species don't get any special treatment here, that's up to whoever uses the result.
+      * @param components The species in the phase.
+      * @param temperature The temperature in K.
+      * @param pressure The pressure in Pa.
+      * @param moleFractions The mole fractions of the phase.
+      * @param isLiquid true for the liquid phase, false for the vapour.
+      * @param previousZ The compressibility factor of the phase from the last call, for warm starting an EoS. 0 if there isn't one.
+      * @param lnFugacityCoefficients Filled with ln(phi i).
+      * @return The compressibility factor of the phase, or 0 if the model doesn't have one.
+      */
+     public abstract double calculateLnFugacityCoefficients(ComponentSet components, double temperature, double pressure, double[] moleFractions, 
+                                                            boolean isLiquid, double previousZ, double[] lnFugacityCoefficients) throws NotFlashable;
+     
+     /**
+      * Calculates ln(phi i) for one phase along with its composition derivatives, for flashes that use Newton's method.
+      * @param dlnPhidn Filled with n*d(ln phi i)/d(nj) at constant T, P and the other mole numbers, where n is the total moles of the phase.
+      * @return The compressibility factor of the phase, or 0 if the model doesn't have one.
+      */
+     public double calculateLnFugacityCoefficients(ComponentSet components, double temperature, double pressure, double[] moleFractions, 
+                                                   boolean isLiquid, double previousZ, double[] lnFugacityCoefficients, double[][] dlnPhidn) throws NotFlashable
+     {
+          return calculateLnFugacityCoefficients(components, temperature, pressure, moleFractions, isLiquid, previousZ, lnFugacityCoefficients, dlnPhidn, null);
+     }
+     
+     /**
+      * Calculates ln(phi i) for one phase along with its composition and temperature derivatives.
+      * Models that aren't an equation of state don't depend on the composition, so their composition derivatives are 0.
+      * @param dlnPhidn Filled with n*d(ln phi i)/d(nj) at constant T, P and the other mole numbers, where n is the total moles of the phase. Can be null.
+      * @param dlnPhidT Filled with d(ln phi i)/dT at constant P and composition in 1/K. Can be null.
+      * @return The compressibility factor of the phase, or 0 if the model doesn't have one.
+      */
+     public abstract double calculateLnFugacityCoefficients(ComponentSet components, double temperature, double pressure, double[] moleFractions, boolean isLiquid, 
+                                                            double previousZ, double[] lnFugacityCoefficients, double[][] dlnPhidn, double[] dlnPhidT) throws NotFlashable;
+     
+     /**
+      * Fills the composition derivatives of ln(phi) with 0, for models where phi doesn't depend on the composition.
+      * @param dlnPhidn The array to clear. Can be null.
+      */
+     protected static void clearCompositionDerivatives(double[][] dlnPhidn)
+     {
+          if (dlnPhidn == null)
+               return;
+          
+          for (int i=0; i<dlnPhidn.length; i++)
+               Arrays.fill(dlnPhidn[i], 0);
+     }
+}
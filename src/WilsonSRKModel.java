@@ -1,32 +1,76 @@
-/**
- * Calculates the K values for each species based on critical pressure and critical temperature
- */
-public class WilsonSRKModel extends VLEModel
-{
-  /**
- * The K values here usually serve as initial guesses for the other models.
- * @param flashTank The flash tank being solved.
- * @return The initial K values of the species.
- */
-  public double[] calculateKi(FlashTank flashTank) {
-    int n = flashTank.getFeedStream().getSpecies().length;
-    double[] initialKi = new double[n];
-    
-    for (int i=0;i<n;i++) {      
-      double critP = flashTank.getFeedStream().getSpecies()[i].getCriticalPressure();
-      double P = flashTank.getPressure();
-      double w = flashTank.getFeedStream().getSpecies()[i].getAccentricFactor();
-      double critT = flashTank.getFeedStream().getSpecies()[i].getCriticalTemperature();
-      double T = flashTank.getFlashTemp();
-      
-      initialKi[i] = critP/P * Math.exp(5.37 * (1+w) * (1-critT/T));
-    }
-    
-     for (int i=0; i<flashTank.getFeedStream().getSpecies().length; i++) {
-               if(!flashTank.getFeedStream().getSpecies()[i].getIsCondensable()) //T>Tc
-                    initialKi[i] = 1e30; //Just a really high number
-          }
-     
-    return initialKi;
-  }
-}
\ No newline at end of file
+/**
+ * Calculates the K values for each species based on critical pressure and critical temperature
+ */
+public class WilsonSRKModel extends VLEModel
+{
+  /**
+ * The K values here usually serve as initial guesses for the other models.
+ * They don't depend on the phase compositions.
+ * @param components The species being flashed.
+ * @param temperature The temperature in K.
+ * @param pressure The pressure in Pa.
+ * @param liquidMoleFractions Not used.
+ * @param vapourMoleFractions Not used.
+ * @param initialKi Filled with the initial K values of the species.
+ */
+  public void calculateKi(ComponentSet components, double temperature, double pressure, 
+                          double[] liquidMoleFractions, double[] vapourMoleFractions, double[] initialKi) {
+    int n = components.getNumComponents();
+    
+    for (int i=0;i<n;i++) {      
+      double critP = components.getCriticalPressure(i);
+      double P = pressure;
+      double w = components.getAccentricFactor(i);
+      double critT = components.getCriticalTemperature(i);
+      double T = temperature;
+      
+      initialKi[i] = critP/P * Math.exp(5.37 * (1+w) * (1-critT/T));
+    }
+    
+     for (int i=0; i<n; i++) {
+               if(!components.getIsCondensable(i)) //T>Tc
+                    initialKi[i] = NON_CONDENSABLE_K;
+          }
+  }
+  
+  /**
+   * The vapour gets ln(phi) = 0 and the liquid gets the log of the Wilson K value.
+   * Non-condensable species get ln(NON_CONDENSABLE_K) in the liquid.
+   * @return 0, there isn't a compressibility factor.
+   */
+  public double calculateLnFugacityCoefficients(ComponentSet components, double temperature, double pressure, double[] moleFractions, 
+                                                boolean isLiquid, double previousZ, double[] lnFugacityCoefficients) {
+    for (int i=0; i<components.getNumComponents(); i++) {
+      if (!isLiquid)
+        lnFugacityCoefficients[i] = 0;
+      else if (!components.getIsCondensable(i))
+        lnFugacityCoefficients[i] = Math.log(NON_CONDENSABLE_K);
+      else
+        lnFugacityCoefficients[i] = Math.log(components.getCriticalPressure(i)/pressure) 
+          + 5.37 * (1+components.getAccentricFactor(i)) * (1-components.getCriticalTemperature(i)/temperature);
+    }
+    
+    return 0;
+  }
+  
+  /**
+   * The same ln(phi) as above. The temperature derivative of the liquid is 5.37*(1+w)*Tc/T^2, everything else is 0.
+   * @return 0, there isn't a compressibility factor.
+   */
+  public double calculateLnFugacityCoefficients(ComponentSet components, double temperature, double pressure, double[] moleFractions, boolean isLiquid, 
+                                                double previousZ, double[] lnFugacityCoefficients, double[][] dlnPhidn, double[] dlnPhidT) {
+    calculateLnFugacityCoefficients(components, temperature, pressure, moleFractions, isLiquid, previousZ, lnFugacityCoefficients);
+    clearCompositionDerivatives(dlnPhidn);
+    
+    if (dlnPhidT != null) {
+      for (int i=0; i<components.getNumComponents(); i++) {
+        if (isLiquid && components.getIsCondensable(i))
+          dlnPhidT[i] = 5.37 * (1+components.getAccentricFactor(i)) * components.getCriticalTemperature(i)/(temperature*temperature);
+        else
+          dlnPhidT[i] = 0;
+      }
+    }
+    
+    return 0;
+  }
+}
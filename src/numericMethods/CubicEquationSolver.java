@@ -1,55 +1,241 @@
-package numericMethods;
-import customExceptions.NotFlashable;
-
-/**
-   * Solves a cubic equation of form:
-   * x^3 + a*x^2 + b*x + c = 0
-   * Used for the PR EOS to find compressibility factor Z
-   * */
-public class CubicEquationSolver
-{
-  
-
-  /**
-   * Solves a cubic equation of form:
-   * x^3 + a*x^2 + b*x + c = 0
-   * @return the minimum root and the maximum root (of 3 roots).
-   * */
-  public double[] solveCubicEquation(double[] constants) throws NotFlashable 
-  {
-    if (constants.length != 3) {
-      System.out.println("Wrong number of constants.");
-      System.exit(0);
-    }
-    double[] roots;
-    double a = constants[0];
-    double b = constants[1];
-    double c = constants[2];
-    
-    
-    double Q = (Math.pow(a,2)-3*b)/9;
-    double R = (2*Math.pow(a,3)-9*a*b+27*c)/54;
-    
-    double M = Math.pow(R, 2) - Math.pow(Q, 3);
-    
-    if(M<0) {
-      roots = new double[2];
-      double theta = Math.acos(R/Math.sqrt(Math.pow(Q, 3)));
-      
-      double x1 = -(2*Math.sqrt(Q)*Math.cos(theta/3))-a/3;
-      double x2 = -(2*Math.sqrt(Q)*Math.cos((theta+2*Math.PI)/3))-a/3;
-      double x3 = -(2*Math.sqrt(Q)*Math.cos((theta-2*Math.PI)/3))-a/3;
-      double minX = Math.min(x1,x2); //Only the smallest and largest roots are needed to find Z.
-      roots[0] = Math.min(minX,x3);
-      double maxX = Math.max(x1,x2);
-      roots[1] = Math.max(maxX,x3);
-      
-      return roots;
-      
-    }
-    else
-    {
-         throw new NotFlashable("System not solved...\nOnly one root found for the cubic EoS.");
-    }    
-  }  
-}
\ No newline at end of file
+package numericMethods;
+import customExceptions.IncorrectArraySize;
+
+/**
+   * Solves a cubic equation of form:
+   * x^3 + a*x^2 + b*x + c = 0
+   * Used for the PR EOS to find compressibility factor Z
+   * Only the smallest and largest real roots are ever needed, so those are the only ones returned.
+   * When there is only one real root (a supercritical or single-phase system), it is returned as both.
+   * The static methods write into arrays passed in by the caller, so solving many cubics allocates nothing.
+   * */
+public class CubicEquationSolver
+{
+
+
+  private static final int POLISH_ITERATIONS = 2;
+  private static final int REFINE_ITERATIONS = 8;
+  private static final double REFINE_TOLERANCE = 1e-13;  //relative
+
+
+  /**
+   * Solves a cubic equation of form:
+   * x^3 + a*x^2 + b*x + c = 0
+   * @param constants a, b and c.
+   * @return the minimum root and the maximum root (of 3 roots). If there is only one real root, both are that root.
+   * @throws IncorrectArraySize if there aren't exactly 3 constants.
+   * */
+  public double[] solveCubicEquation(double[] constants) throws IncorrectArraySize
+  {
+    if (constants.length != 3)
+      throw new IncorrectArraySize("Wrong number of constants. Expected a, b and c.");
+
+    double[] roots = new double[2];
+    solve(constants[0], constants[1], constants[2], roots, 0);
+
+    return roots;
+  }
+
+
+  /**
+   * Solves a cubic equation of form:
+   * x^3 + a*x^2 + b*x + c = 0
+   * @param roots Filled with the minimum root at offset and the maximum root at offset+1.
+   * @param offset Where in roots to put the two roots.
+   * @return the number of real roots, 1 or 3. With one real root, both entries are that root.
+   * */
+  public static int solve(double a, double b, double c, double[] roots, int offset)
+  {
+    return solve(a, b, c, roots, offset, roots, offset+1);
+  }
+
+
+  /**
+   * Writes the smallest root to minRoots[minIndex] and the largest to maxRoots[maxIndex].
+   * @return the number of real roots, 1 or 3.
+   * */
+  private static int solve(double a, double b, double c, double[] minRoots, int minIndex, double[] maxRoots, int maxIndex)
+  {
+    double Q = (a*a-3*b)/9;
+    double R = (2*a*a*a-9*a*b+27*c)/54;
+
+    double Q3 = Q*Q*Q;
+    double M = R*R - Q3;
+
+    if(M<0) {
+      //Three real roots. theta/3 is in [0, pi/3], so the theta/3 root is always the smallest
+      //and the (theta+2pi)/3 root is always the largest. The third one is never needed.
+      double theta = Math.acos(R/Math.sqrt(Q3));
+      double twoSqrtQ = 2*Math.sqrt(Q);
+
+      minRoots[minIndex] = -(twoSqrtQ*Math.cos(theta/3))-a/3;
+      maxRoots[maxIndex] = -(twoSqrtQ*Math.cos((theta+2*Math.PI)/3))-a/3;
+
+      return 3;
+    }
+
+    double x = cardanoRoot(a, b, c, Q, R, M);
+    minRoots[minIndex] = x;
+    maxRoots[maxIndex] = x;
+
+    return 1;
+  }
+
+
+  /**
+   * Solves a cubic equation of form:
+   * x^3 + a*x^2 + b*x + c = 0
+   * @return the smallest real root.
+   * */
+  public static double smallestRoot(double a, double b, double c)
+  {
+    double Q = (a*a-3*b)/9;
+    double R = (2*a*a*a-9*a*b+27*c)/54;
+    double Q3 = Q*Q*Q;
+    double M = R*R - Q3;
+
+    if (M<0)
+      return -(2*Math.sqrt(Q)*Math.cos(Math.acos(R/Math.sqrt(Q3))/3))-a/3;
+
+    return cardanoRoot(a, b, c, Q, R, M);
+  }
+
+
+  /**
+   * Solves a cubic equation of form:
+   * x^3 + a*x^2 + b*x + c = 0
+   * @return the largest real root.
+   * */
+  public static double largestRoot(double a, double b, double c)
+  {
+    double Q = (a*a-3*b)/9;
+    double R = (2*a*a*a-9*a*b+27*c)/54;
+    double Q3 = Q*Q*Q;
+    double M = R*R - Q3;
+
+    if (M<0)
+      return -(2*Math.sqrt(Q)*Math.cos((Math.acos(R/Math.sqrt(Q3))+2*Math.PI)/3))-a/3;
+
+    return cardanoRoot(a, b, c, Q, R, M);
+  }
+
+
+  /**
+   * Solves a cubic equation of form:
+   * x^3 + a*x^2 + b*x + c = 0
+   * starting from the smallest root of a nearby cubic, such as the one from the previous iteration of a flash.
+   * A few Newton steps are usually enough, and no transcendental functions are called.
+   * If Newton's method doesn't converge or lands on another root, the cubic is solved from scratch.
+   * @param guess The previous smallest root. Anything less than or equal to 0 means there isn't one.
+   * @return the smallest real root.
+   * */
+  public static double smallestRoot(double a, double b, double c, double guess)
+  {
+    double x = refineRoot(a, b, c, guess, false);
+
+    return Double.isNaN(x) ? smallestRoot(a, b, c) : x;
+  }
+
+
+  /**
+   * Solves a cubic equation of form:
+   * x^3 + a*x^2 + b*x + c = 0
+   * starting from the largest root of a nearby cubic, such as the one from the previous iteration of a flash.
+   * A few Newton steps are usually enough, and no transcendental functions are called.
+   * If Newton's method doesn't converge or lands on another root, the cubic is solved from scratch.
+   * @param guess The previous largest root. Anything less than or equal to 0 means there isn't one.
+   * @return the largest real root.
+   * */
+  public static double largestRoot(double a, double b, double c, double guess)
+  {
+    double x = refineRoot(a, b, c, guess, true);
+
+    return Double.isNaN(x) ? largestRoot(a, b, c) : x;
+  }
+
+
+  /**
+   * Newton's method from guess, then a check that the root found is the one wanted.
+   * Dividing out the root leaves the quadratic x^2 + (a+x)x + (b+x(a+x)), whose roots are the other two.
+   * The root is only accepted if the quadratic has no real roots, or if both are on the correct side of it.
+   * The smallest and largest roots both have a positive slope, so a negative slope means the wrong root.
+   * @param largest true for the largest root, false for the smallest.
+   * @return the root, or NaN if it couldn't be found this way.
+   * */
+  private static double refineRoot(double a, double b, double c, double guess, boolean largest)
+  {
+    if (!(guess > 0))
+      return Double.NaN;
+
+    double x = guess;
+    boolean converged = false;
+
+    for (int i=0; i<REFINE_ITERATIONS && !converged; i++) {
+      double f = ((x+a)*x+b)*x+c;
+      double df = (3*x+2*a)*x+b;
+      if (!(df > 0))
+        return Double.NaN;
+
+      double step = f/df;
+      x -= step;
+      converged = Math.abs(step) <= REFINE_TOLERANCE*Math.abs(x);
+    }
+
+    if (!converged)
+      return Double.NaN;
+
+    double p = a+x;
+    double q = b+x*p;
+    double discriminant = p*p-4*q;
+    if (discriminant < 0)
+      return x;
+
+    double sqrtDiscriminant = Math.sqrt(discriminant);
+    if (largest)
+      return (x >= (-p+sqrtDiscriminant)/2) ? x : Double.NaN;
+    else
+      return (x <= (-p-sqrtDiscriminant)/2) ? x : Double.NaN;
+  }
+
+
+  /**
+   * The only real root when M = R^2-Q^3 >= 0, by Cardano's formula.
+   * The cube root of a difference loses precision when the two terms are close, so the root is polished with Newton's method.
+   * */
+  private static double cardanoRoot(double a, double b, double c, double Q, double R, double M)
+  {
+    double S = -Math.signum(R)*Math.cbrt(Math.abs(R)+Math.sqrt(M));
+    double T = (S == 0) ? 0 : Q/S;
+    double x = S+T-a/3;
+
+    for (int i=0; i<POLISH_ITERATIONS; i++) {
+      double f = ((x+a)*x+b)*x+c;
+      double df = (3*x+2*a)*x+b;
+      if (df == 0)
+        break;
+      x -= f/df;
+    }
+
+    return x;
+  }
+
+
+  /**
+   * Solves count cubic equations of form:
+   * x^3 + a[k]*x^2 + b[k]*x + c[k] = 0
+   * The coefficients and the results are stored as separate arrays, one entry per cubic.
+   * @param minRoots Filled with the smallest root of each cubic.
+   * @param maxRoots Filled with the largest root of each cubic.
+   * @param numRoots Filled with the number of real roots of each cubic (1 or 3). Can be null.
+   * @param count The number of cubics to solve.
+   * */
+  public static void solve(double[] a, double[] b, double[] c, double[] minRoots, double[] maxRoots, int[] numRoots, int count)
+  {
+    for (int k=0; k<count; k++) {
+      int n = solve(a[k], b[k], c[k], minRoots, k, maxRoots, k);
+      if (numRoots != null)
+        numRoots[k] = n;
+    }
+  }
+
+}
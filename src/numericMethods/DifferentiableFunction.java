@@ -0,0 +1,18 @@
+package numericMethods;
+
+/**
+ * A function of one variable that returns its derivative along with its value,
+ * for functions where both come out of the same calculation.
+ * Nothing is thrown. If the function can't be evaluated at x, it returns NaN and the root finder reports it in its result.
+ */
+@FunctionalInterface
+public interface DifferentiableFunction
+{
+     /**
+      * @param x The point to evaluate the function at.
+      * @param dydx Filled with dy/dx at x, in dydx[0].
+      * @return y at x.
+      */
+     public double findYGivenX(double x, double[] dydx);
+     
+}//end of interface
@@ -1,13 +0,0 @@
-package numericMethods;
-
-/**
- * Gimp interface for equations that can be solved.
- * Note: Exact same as case
- * @Version V1.0 - 2017/11/11
- * @Author JWB Jesse Ward-Bond
- */
-public interface HasRoot2
-{
-  public double findYGivenXTwo(double x, double y);
-  
-}//end of interface
\ No newline at end of file
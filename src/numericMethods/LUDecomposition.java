@@ -0,0 +1,96 @@
+package numericMethods;
+
+/**
+ * LU factorisation with partial pivoting, done in place on primitive arrays.
+ * factor overwrites the matrix with L (below the diagonal, with an implied unit diagonal) and U (on and above it),
+ * and solve uses the factors to solve Ax = b in place. Nothing is allocated, so the same arrays can be reused for every solve.
+ */
+public class LUDecomposition
+{
+     
+     
+     /**
+      * Factors the top left n by n block of a in place.
+      * @param a The matrix. Overwritten with its LU factors.
+      * @param n The size of the system.
+      * @param pivot Filled with the row swapped into each position.
+      * @return false if the matrix is singular (a zero or non-finite pivot), in which case a is only partly factored.
+      */
+     public static boolean factor(double[][] a, int n, int[] pivot)
+     {
+          for (int k=0; k<n; k++) {
+               //Partial pivoting: bring the largest remaining entry in column k to the diagonal
+               int p = k;
+               double largest = Math.abs(a[k][k]);
+               for (int i=k+1; i<n; i++) {
+                    double size = Math.abs(a[i][k]);
+                    if (size > largest) {
+                         largest = size;
+                         p = i;
+                    }
+               }
+               pivot[k] = p;
+               
+               if (!(largest > 0) || Double.isInfinite(largest))
+                    return false;
+               
+               if (p != k) {
+                    double[] temp = a[p];
+                    a[p] = a[k];
+                    a[k] = temp;
+               }
+               
+               double[] rowK = a[k];
+               double inversePivot = 1/rowK[k];
+               for (int i=k+1; i<n; i++) {
+                    double[] rowI = a[i];
+                    double factor = rowI[k]*inversePivot;
+                    rowI[k] = factor;
+                    if (factor != 0) {
+                         for (int j=k+1; j<n; j++)
+                              rowI[j] -= factor*rowK[j];
+                    }
+               }
+          }
+          
+          return true;
+     }
+     
+     
+     /**
+      * Solves Ax = b with the factors from factor.
+      * @param lu The factored matrix.
+      * @param n The size of the system.
+      * @param pivot The pivots from factor.
+      * @param b The right hand side. Overwritten with x.
+      */
+     public static void solve(double[][] lu, int n, int[] pivot, double[] b)
+     {
+          //Apply the row swaps, then forward substitution with the unit lower triangle
+          for (int k=0; k<n; k++) {
+               int p = pivot[k];
+               if (p != k) {
+                    double temp = b[p];
+                    b[p] = b[k];
+                    b[k] = temp;
+               }
+          }
+          for (int i=1; i<n; i++) {
+               double[] row = lu[i];
+               double sum = b[i];
+               for (int j=0; j<i; j++)
+                    sum -= row[j]*b[j];
+               b[i] = sum;
+          }
+          
+          //Back substitution with the upper triangle
+          for (int i=n-1; i>=0; i--) {
+               double[] row = lu[i];
+               double sum = b[i];
+               for (int j=i+1; j<n; j++)
+                    sum -= row[j]*b[j];
+               b[i] = sum/row[i];
+          }
+     }
+     
+}//End of LUDecomposition class
@@ -0,0 +1,190 @@
+package numericMethods;
+
+/**
+ * Solves a system of n equations in n unknowns, F(x) = 0, with the Newton-Raphson method.
+ * The Jacobian either comes from the function itself or from forward differences, and each Newton step is solved with an LU factorisation.
+ * Every step is checked with a backtracking line search on (1/2)|F|^2, so a step that overshoots is cut back until the residual falls.
+ * All of the arrays are allocated once, when the solver is created, and reused by every iteration and every solve.
+ * One solver can be used for any number of systems of the same size, but only by one thread at a time.
+ */
+public class NewtonSystemSolver
+{
+
+
+     private static final double ARMIJO_CONSTANT = 1e-4;  //the fraction of the predicted decrease a step has to achieve
+     private static final double MIN_STEP_FRACTION = 1e-10;
+     private static final double FINITE_DIFFERENCE_STEP = Math.sqrt(Math.ulp(1.0));
+
+     private int n;
+     private double[] y;
+     private double[] yTrial;
+     private double[] xTrial;
+     private double[] step;
+     private double[][] jacobian;
+     private int[] pivot;
+
+
+//---------------------------------------------CONSTRUCTORS------------------------------------------------------------
+
+
+     /**
+      * Creates the workspace for systems of n equations.
+      * @param n The number of equations and unknowns.
+      */
+     public NewtonSystemSolver(int n)
+     {
+          this.n = n;
+          this.y = new double[n];
+          this.yTrial = new double[n];
+          this.xTrial = new double[n];
+          this.step = new double[n];
+          this.jacobian = new double[n][n];
+          this.pivot = new int[n];
+     }
+
+
+//-------------------------------------------------METHODS-------------------------------------------------------------
+
+
+     /**
+      * @return The number of equations this solver was created for.
+      */
+     public int getSize()
+     {
+          return this.n;
+     }
+
+
+     /**
+      * Solves F(x) = 0.
+      * @param f The system. It's asked for the Jacobian if analyticJacobian is true, otherwise dydx is always null.
+      * @param x The starting point. Overwritten with the solution (or the last iterate if it didn't converge).
+      * @param tolerance The largest |Fi| accepted as converged.
+      * @param maxIt The maximum number of Newton iterations.
+      * @param analyticJacobian true if f fills the Jacobian, false to use forward differences.
+      * @return How many iterations and evaluations it took, the final residual, and the status.
+      */
+     public SystemResult solve(VectorFunction f, double[] x, double tolerance, int maxIt, boolean analyticJacobian)
+     {
+          int evaluations = 0;
+
+          f.findYGivenX(x, this.y, analyticJacobian ? this.jacobian : null);
+          evaluations++;
+          double merit = calculateMerit(this.y);
+          double residual = calculateResidual(this.y);
+          if (Double.isNaN(merit) || Double.isInfinite(merit))
+               return new SystemResult(0, evaluations, residual, SystemResult.BAD_VALUE);
+
+          for (int iter=0; iter<maxIt; iter++) {
+               if (residual <= tolerance)
+                    return new SystemResult(iter, evaluations, residual, SystemResult.CONVERGED);
+
+               if (!analyticJacobian)
+                    evaluations += calculateFiniteDifferenceJacobian(f, x);
+
+               //Newton step: J*step = -F
+               if (!LUDecomposition.factor(this.jacobian, this.n, this.pivot))
+                    return new SystemResult(iter, evaluations, residual, SystemResult.SINGULAR_JACOBIAN);
+               for (int i=0; i<this.n; i++)
+                    this.step[i] = -this.y[i];
+               LUDecomposition.solve(this.jacobian, this.n, this.pivot, this.step);
+
+               //Backtracking line search. Along the Newton direction, d(merit)/d(lambda) = -2*merit at lambda = 0
+               double lambda = 1;
+               double trialMerit;
+               while (true) {
+                    for (int i=0; i<this.n; i++)
+                         this.xTrial[i] = x[i] + lambda*this.step[i];
+
+                    f.findYGivenX(this.xTrial, this.yTrial, analyticJacobian ? this.jacobian : null);
+                    evaluations++;
+                    trialMerit = calculateMerit(this.yTrial);
+
+                    if (trialMerit <= (1 - 2*ARMIJO_CONSTANT*lambda)*merit)
+                         break;
+
+                    if (lambda < MIN_STEP_FRACTION) {
+                         //Put the Jacobian back to the one at x, since the last trial overwrote it
+                         if (analyticJacobian)
+                              f.findYGivenX(x, this.y, this.jacobian);
+                         return new SystemResult(iter+1, evaluations, residual, SystemResult.LINE_SEARCH_FAILED);
+                    }
+
+                    //Minimum of the quadratic through merit(0), its slope and merit(lambda), kept within [0.1, 0.5]*lambda
+                    double nextLambda;
+                    if (Double.isNaN(trialMerit) || Double.isInfinite(trialMerit))
+                         nextLambda = 0.5*lambda;
+                    else
+                         nextLambda = merit*lambda*lambda/(trialMerit - merit + 2*merit*lambda);
+                    lambda = Math.max(0.1*lambda, Math.min(0.5*lambda, nextLambda));
+               }
+
+               //Accept the step
+               System.arraycopy(this.xTrial, 0, x, 0, this.n);
+               double[] temp = this.y;
+               this.y = this.yTrial;
+               this.yTrial = temp;
+               merit = trialMerit;
+               residual = calculateResidual(this.y);
+          }
+
+          if (residual <= tolerance)
+               return new SystemResult(maxIt, evaluations, residual, SystemResult.CONVERGED);
+
+          return new SystemResult(maxIt, evaluations, residual, SystemResult.MAX_ITERATIONS);
+     }
+
+
+     /**
+      * Fills the Jacobian with forward differences around x, using the values at x already in y.
+      * x is changed one entry at a time and put back.
+      * @return The number of function evaluations.
+      */
+     private int calculateFiniteDifferenceJacobian(VectorFunction f, double[] x)
+     {
+          for (int j=0; j<this.n; j++) {
+               double xj = x[j];
+               double h = FINITE_DIFFERENCE_STEP*Math.max(Math.abs(xj), 1);
+               x[j] = xj + h;
+               h = x[j] - xj;  //the step that was actually taken after rounding
+
+               f.findYGivenX(x, this.yTrial, null);
+               x[j] = xj;
+
+               for (int i=0; i<this.n; i++)
+                    this.jacobian[i][j] = (this.yTrial[i] - this.y[i])/h;
+          }
+
+          return this.n;
+     }
+
+
+     /**
+      * @return (1/2)*sum(yi^2), the function the line search reduces.
+      */
+     private double calculateMerit(double[] y)
+     {
+          double sum = 0;
+          for (int i=0; i<this.n; i++)
+               sum += y[i]*y[i];
+
+          return 0.5*sum;
+     }
+
+
+     /**
+      * @return The largest |yi|.
+      */
+     private double calculateResidual(double[] y)
+     {
+          double largest = 0;
+          for (int i=0; i<this.n; i++) {
+               double size = Math.abs(y[i]);
+               if (!(size <= largest))
+                    largest = size;  //also catches NaN
+          }
+
+          return largest;
+     }
+
+}//End of NewtonSystemSolver class
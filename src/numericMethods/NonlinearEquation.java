@@ -1,7 +0,0 @@
-package numericMethods;
-
-public interface NonlinearEquation
-{
-  public double returnValue(double x);
-  public double returnDerivative(double x);
-}
\ No newline at end of file
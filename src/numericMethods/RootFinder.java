@@ -1,160 +1,208 @@
-package numericMethods;
-import customExceptions.NoRootFound;
-import customExceptions.BadFunction;
-
-/**
- * Finds the solution to any object implementing HasRoot using: Bisection or Ridder's method
- * */
-public class RootFinder
-{
-     /**
-      * Solves the roots of findYGivenX that sets Y to Ytarget.
-      */
-     public static double bisectionRoot(double xmin , double xmax, double yTarget, double tol, long maxIt, HasRoot e) throws BadFunction
-     {
-          double a, b, m, y_m, y_a,y_b,xDiff;
-          
-          a=Math.min(xmin,xmax);
-          b=Math.max(xmin,xmax);
-          m=0.0;//just to initialize
-          
-          xDiff=b-a;
-          long iter=0;
-          while ( xDiff > tol&& iter<maxIt)
-          {
-               m = (a+b)/2;           // Mid point
-                              
-               y_a = e.findYGivenX(a)-yTarget;       // y_a = f(a)
-               y_m = e.findYGivenX(m)-yTarget;       // y_m = f(m)
-               y_b = e.findYGivenX(b)-yTarget;       // y_b = f(b)
-               
-               if ( (y_m > 0 && y_a < 0) || (y_m < 0 && y_a > 0) )
-               {
-                    b = m;
-                    // f(a) and f(m) have different signs: move b
-               }
-               
-               else
-               {
-                    if((y_m > 0 && y_b > 0) || (y_m < 0 && y_b < 0))
-                    {
-                         System.out.println("ya, ym, yb all have the same sign. Returning 0");
-                         return 0;
-                    }
-                    
-                    // f(a) and f(m) have same signs: move a
-                    
-                    a = m;
-                    
-               }
-               xDiff=Math.abs(b-a);
-               iter++;  
-          }
-     return m;
-     }//End of bisection method
-     
-     public static double ridderRoot(double xMin , double xMax, double yTarget, double tolerance, int maxIt, HasRoot e) throws BadFunction { 
-          double xL=Math.min(xMin,xMax);
-          double xU=Math.max(xMin,xMax);
-          double xM=(xL+xU)/2;
-          int sgn=0;
-          double xR=0;
-          
-          double f_xL;
-          double f_xU;
-          double f_xM;
-          double f_xR;
-          
-          double epsilon_a=xU-xL;
-          int iter=0;
-          
-          double[] solution=new double[maxIt];
-          
-          while(epsilon_a>tolerance && iter<maxIt)
-          {
-                                   
-               f_xL=e.findYGivenX(xL)-yTarget;
-               f_xU=e.findYGivenX(xU)-yTarget;
-               f_xM=e.findYGivenX(xM)-yTarget;
-                            
-               //find xR
-               if((Math.pow(f_xM, 2)-f_xL*f_xU<0))
-                    throw new BadFunction("There are no real roots");
-               
-               xR = xM + (xM-xL) * (Math.signum(f_xL-f_xU)*f_xM / Math.sqrt(Math.pow(f_xM, 2)-f_xL*f_xU));
-               f_xR=e.findYGivenX(xR)-yTarget;
-               solution[iter]=xR;
-               
-               if(xR<xM) {
-                    if((f_xL * f_xR)<0) {
-                         xU = xR;
-                    }
-                    else if((f_xR * f_xM)<0) {
-                         xL = xR;
-                         xU = xM;
-                    }
-                    else if((f_xM * f_xU)<0) {
-                         xL = xM;
-                    }
-                    else {
-                         
-                    }
-               }
-               
-               if(xR>xM) {
-                    if((f_xL * f_xM)<0) {
-                         xU = xM;
-                    }
-                    else if((f_xM * f_xR)<0) {
-                         xL = xM; 
-                         xU = xR;
-                    }
-                    else if((f_xR * f_xU)<0) {
-                         xL = xR;
-                    }
-                    else {
-                         System.out.println("Wow ridders nailed the solution");
-                         return xR; 
-                    }
-               }
-               
-               xM=(xL+xU)/2;      
-
-               if(iter>0) {//calculate the error
-                    epsilon_a=Math.abs((solution[iter]-solution[iter-1])/solution[iter]);
-               }
-               
-               iter ++;
-          }
-          
-          System.out.println("... solved after "+iter+" iterations...");
-          
-          if(epsilon_a>tolerance)
-               System.out.println("Maximum number of iterations reached before convergence");
-          
-          return xR;
-     }//end of Ridder's method
-     
-    
-     
-     public static double Newton(double x_0, double tol, long maxIt, NonlinearEquation e) throws BadFunction
-     {
-       double x_old=x_0;
-       double x_new;
-       double x_diff;
-       long iter=0;
-       
-       do
-       {
-         x_new=x_old-e.returnValue(x_old)/e.returnDerivative(x_old);
-         x_diff=Math.abs(x_old-x_new);
-         x_old=x_new;
-         
-         iter++;
-       } while(x_diff>tol && iter<maxIt);
-       
-       if(x_diff>tol) System.out.println("Maximum number of iterations reached before convergence");
-       
-       return x_new;
-     }
-}//end of bisection class
\ No newline at end of file
+package numericMethods;
+
+/**
+ * Finds the roots of scalar functions with Brent's method or a safeguarded Newton's method.
+ * They take the primitive ScalarFunction and DifferentiableFunction interfaces, and never throw or print. Failures come back as the status of the RootResult.
+ * */
+public class RootFinder
+{
+     private static final double MACHINE_EPSILON = Math.ulp(1.0);
+     
+
+     /**
+      * Solves the root of findYGivenX that sets Y to yTarget with Brent's method.
+      * Inverse quadratic interpolation or the secant method is used when it makes good progress, and bisection when it doesn't,
+      * so it is never slower than bisection. Each iteration evaluates the function once, the bracket keeps the values it already has.
+      * Nothing is printed.
+      * @param xMin One end of the bracket.
+      * @param xMax The other end of the bracket. f(xMin) and f(xMax) have to be on opposite sides of yTarget.
+      * @param yTarget The value of findYGivenX wanted.
+      * @param tolerance The absolute tolerance on x.
+      * @param maxIt The maximum number of iterations.
+      * @return The root, with the number of iterations and function evaluations it took.
+      *         The status is NOT_BRACKETED if the root isn't bracketed, and BAD_VALUE if the function returns NaN or infinity.
+      */
+     public static RootResult brentRoot(double xMin, double xMax, double yTarget, double tolerance, int maxIt, ScalarFunction e) {
+          double a = xMin;
+          double b = xMax;
+          double f_a = e.findYGivenX(a)-yTarget;
+          if(!isFinite(f_a))
+               return new RootResult(a, 0, 1, RootResult.BAD_VALUE);
+          double f_b = e.findYGivenX(b)-yTarget;
+          int evaluations = 2;
+          if(!isFinite(f_b))
+               return new RootResult(b, 0, evaluations, RootResult.BAD_VALUE);
+          
+          if(f_a == 0)
+               return new RootResult(a, 0, evaluations, RootResult.CONVERGED);
+          if(f_b == 0)
+               return new RootResult(b, 0, evaluations, RootResult.CONVERGED);
+          if((f_a > 0 && f_b > 0) || (f_a < 0 && f_b < 0))
+               return new RootResult((Math.abs(f_a) < Math.abs(f_b)) ? a : b, 0, evaluations, RootResult.NOT_BRACKETED);
+          
+          //b is the best estimate, and the root is always between b and c
+          double c = b;
+          double f_c = f_b;
+          double d = b-a;  //the last step
+          double stepBefore = d;  //the step before that
+          
+          for(int iter=0; iter<maxIt; iter++) {
+               if((f_b > 0 && f_c > 0) || (f_b < 0 && f_c < 0)) {
+                    c = a;
+                    f_c = f_a;
+                    d = b-a;
+                    stepBefore = d;
+               }
+               if(Math.abs(f_c) < Math.abs(f_b)) {
+                    a = b;
+                    b = c;
+                    c = a;
+                    f_a = f_b;
+                    f_b = f_c;
+                    f_c = f_a;
+               }
+               
+               double tol = 2*MACHINE_EPSILON*Math.abs(b) + 0.5*tolerance;
+               double xM = 0.5*(c-b);
+               if(Math.abs(xM) <= tol || f_b == 0)
+                    return new RootResult(b, iter, evaluations, RootResult.CONVERGED);
+               
+               if(Math.abs(stepBefore) >= tol && Math.abs(f_a) > Math.abs(f_b)) {
+                    //Try interpolating
+                    double p, q;
+                    double s = f_b/f_a;
+                    if(a == c) {
+                         //secant
+                         p = 2*xM*s;
+                         q = 1-s;
+                    }
+                    else {
+                         //inverse quadratic
+                         double r = f_b/f_c;
+                         double t = f_a/f_c;
+                         p = s*(2*xM*t*(t-r) - (b-a)*(r-1));
+                         q = (t-1)*(r-1)*(s-1);
+                    }
+                    if(p > 0)
+                         q = -q;
+                    else
+                         p = -p;
+                    
+                    //Only accept the interpolation if it stays in the bracket and shrinks fast enough
+                    if(2*p < Math.min(3*xM*q - Math.abs(tol*q), Math.abs(stepBefore*q))) {
+                         stepBefore = d;
+                         d = p/q;
+                    }
+                    else {
+                         d = xM;
+                         stepBefore = d;
+                    }
+               }
+               else {
+                    //Bisection
+                    d = xM;
+                    stepBefore = d;
+               }
+               
+               a = b;
+               f_a = f_b;
+               b += (Math.abs(d) > tol) ? d : Math.copySign(tol, xM);
+               f_b = e.findYGivenX(b)-yTarget;
+               evaluations++;
+               if(!isFinite(f_b))
+                    return new RootResult(b, iter+1, evaluations, RootResult.BAD_VALUE);
+          }
+          
+          return new RootResult(b, maxIt, evaluations, RootResult.MAX_ITERATIONS);
+     }//end of Brent's method
+     
+     
+     /**
+      * Solves the root of findYGivenX that sets Y to yTarget with Newton's method, kept inside a bracket.
+      * The bracket shrinks with the sign of every evaluation, and any Newton step that would leave it,
+      * or that isn't at least halving the step before it, is replaced by bisection. So it always converges once the root is bracketed.
+      * Nothing is printed.
+      * @param xMin One end of the bracket.
+      * @param xMax The other end of the bracket. f(xMin) and f(xMax) have to be on opposite sides of yTarget.
+      * @param xGuess Where to start. If it isn't inside the bracket, the middle of the bracket is used.
+      * @param yTarget The value of findYGivenX wanted.
+      * @param tolerance The absolute tolerance on x.
+      * @param maxIt The maximum number of iterations.
+      * @param dydx Scratch space for the derivative, of length 1 or more, so nothing is allocated.
+      * @return The root, with the number of iterations and function evaluations it took.
+      *         The status is NOT_BRACKETED if the root isn't bracketed, and BAD_VALUE if the function returns NaN or infinity.
+      */
+     public static RootResult newtonRoot(double xMin, double xMax, double xGuess, double yTarget, double tolerance, int maxIt, 
+                                         DifferentiableFunction e, double[] dydx) {
+          double xL = Math.min(xMin, xMax);
+          double xU = Math.max(xMin, xMax);
+          double f_xL = e.findYGivenX(xL, dydx)-yTarget;
+          if(!isFinite(f_xL))
+               return new RootResult(xL, 0, 1, RootResult.BAD_VALUE);
+          double f_xU = e.findYGivenX(xU, dydx)-yTarget;
+          int evaluations = 2;
+          if(!isFinite(f_xU))
+               return new RootResult(xU, 0, evaluations, RootResult.BAD_VALUE);
+          
+          if(f_xL == 0)
+               return new RootResult(xL, 0, evaluations, RootResult.CONVERGED);
+          if(f_xU == 0)
+               return new RootResult(xU, 0, evaluations, RootResult.CONVERGED);
+          if((f_xL > 0 && f_xU > 0) || (f_xL < 0 && f_xU < 0))
+               return new RootResult((Math.abs(f_xL) < Math.abs(f_xU)) ? xL : xU, 0, evaluations, RootResult.NOT_BRACKETED);
+          
+          //Orient the bracket so that f(xL) < 0 < f(xU)
+          if(f_xL > 0) {
+               double temp = xL;
+               xL = xU;
+               xU = temp;
+          }
+          
+          double x = (xGuess > Math.min(xL, xU) && xGuess < Math.max(xL, xU)) ? xGuess : 0.5*(xL+xU);
+          double step = Math.abs(xU-xL);
+          double stepBefore = step;
+          
+          for(int iter=0; iter<maxIt; iter++) {
+               double f = e.findYGivenX(x, dydx)-yTarget;
+               double df = dydx[0];
+               evaluations++;
+               if(!isFinite(f))
+                    return new RootResult(x, iter, evaluations, RootResult.BAD_VALUE);
+               if(f == 0)
+                    return new RootResult(x, iter, evaluations, RootResult.CONVERGED);
+               
+               if(f < 0)
+                    xL = x;
+               else
+                    xU = x;
+               
+               double newton = x - f/df;
+               stepBefore = step;
+               if(!isFinite(newton) || (newton-xL)*(newton-xU) >= 0 || Math.abs(2*f) > Math.abs(stepBefore*df)) {
+                    //Bisection
+                    step = 0.5*(xU-xL);
+                    x = xL + step;
+               }
+               else {
+                    step = newton - x;
+                    x = newton;
+               }
+               
+               if(Math.abs(step) <= tolerance)
+                    return new RootResult(x, iter+1, evaluations, RootResult.CONVERGED);
+          }
+          
+          return new RootResult(x, maxIt, evaluations, RootResult.MAX_ITERATIONS);
+     }//end of Newton's method
+     
+     
+     /**
+      * @return false if y is NaN or infinite.
+      */
+     private static boolean isFinite(double y) {
+          return !Double.isNaN(y) && !Double.isInfinite(y);
+     }
+     
+    
+     
+}//End of RootFinder class
\ No newline at end of file
@@ -0,0 +1,72 @@
+package numericMethods;
+
+/**
+ * The result of a root finder: the root, how much work it took to find it, and whether it worked.
+ * Nothing is printed or thrown by the root finders that return one of these, so it's up to the caller to check the status.
+ */
+public class RootResult
+{
+     
+     
+     public static final int CONVERGED = 0;
+     public static final int MAX_ITERATIONS = 1;  //the root is the best estimate when the iterations ran out
+     public static final int NOT_BRACKETED = 2;  //the function has the same sign at both ends
+     public static final int BAD_VALUE = 3;  //the function returned NaN or infinity
+     
+     private double root;
+     private int iterations;
+     private int evaluations;  //calls to findYGivenX
+     private int status;
+     
+     
+//---------------------------------------------CONSTRUCTORS------------------------------------------------------------
+     
+     
+     /**
+      * @param root The best estimate of the root.
+      * @param iterations The number of iterations taken.
+      * @param evaluations The number of times the function was evaluated, including the bracket end points.
+      * @param status CONVERGED, MAX_ITERATIONS, NOT_BRACKETED or BAD_VALUE.
+      */
+     public RootResult(double root, int iterations, int evaluations, int status)
+     {
+          this.root = root;
+          this.iterations = iterations;
+          this.evaluations = evaluations;
+          this.status = status;
+     }
+     
+     
+//-------------------------------------------------METHODS-------------------------------------------------------------
+     
+     
+     public double getRoot()
+     {
+          return this.root;
+     }
+     
+     
+     public int getIterations()
+     {
+          return this.iterations;
+     }
+     
+     
+     public int getEvaluations()
+     {
+          return this.evaluations;
+     }
+     
+     
+     public int getStatus()
+     {
+          return this.status;
+     }
+     
+     
+     public boolean getConverged()
+     {
+          return this.status == CONVERGED;
+     }
+     
+}//End of RootResult class
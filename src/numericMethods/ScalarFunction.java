@@ -0,0 +1,12 @@
+package numericMethods;
+
+/**
+ * A function of one variable for the root finders.
+ * Nothing is thrown. If the function can't be evaluated at x, it returns NaN and the root finder reports it in its result.
+ */
+@FunctionalInterface
+public interface ScalarFunction
+{
+     public double findYGivenX(double x);
+     
+}//end of interface
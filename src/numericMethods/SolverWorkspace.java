@@ -0,0 +1,157 @@
+package numericMethods;
+
+/**
+ * Scratch arrays for iterative flash calculations, sized once for the number of components.
+ * A flash loop borrows its K value, composition and compressibility factor arrays from here instead of allocating new ones every iteration,
+ * and so does a Newton's method solve of the whole flash, for its residuals and its NewtonSystemSolver.
+ * The arrays are only scratch space: nothing in them is valid after the loop that borrowed them is done,
+ * so anything that needs to be kept has to be copied out.
+ * A workspace must only be used by one loop at a time, so each flash allocates its own when it starts.
+ */
+public class SolverWorkspace
+{
+
+
+     private int numComponents;
+     private double[] ki;
+     private double[] kiOld;
+     private double[] liquidMoleFractions;
+     private double[] vapourMoleFractions;
+     private double[] scratch;
+     private double[] liquidLnFugacityCoefficients;
+     private double[] vapourLnFugacityCoefficients;
+     private double[] step;  //the change in ln(Ki) of the last iteration
+     private double[] stepOld;  //and the one before it
+     private double[] zRoots;  //liquid and vapour compressibility factors, for warm starting a cubic EoS
+     private double[] residuals;
+     private NewtonSystemSolver systemSolver;  //made the first time it's needed
+
+
+//---------------------------------------------CONSTRUCTORS------------------------------------------------------------
+
+
+     /**
+      * @param numComponents The number of components in the flash.
+      */
+     public SolverWorkspace(int numComponents)
+     {
+          this.numComponents = numComponents;
+          this.ki = new double[numComponents];
+          this.kiOld = new double[numComponents];
+          this.liquidMoleFractions = new double[numComponents];
+          this.vapourMoleFractions = new double[numComponents];
+          this.scratch = new double[numComponents];
+          this.liquidLnFugacityCoefficients = new double[numComponents];
+          this.vapourLnFugacityCoefficients = new double[numComponents];
+          this.step = new double[numComponents];
+          this.stepOld = new double[numComponents];
+          this.zRoots = new double[2];
+          this.residuals = new double[numComponents+1];
+     }
+
+
+//-------------------------------------------------METHODS-------------------------------------------------------------
+
+
+     public int getNumComponents()
+     {
+          return this.numComponents;
+     }
+
+
+     public double[] getKi()
+     {
+          return this.ki;
+     }
+
+
+     public double[] getKiOld()
+     {
+          return this.kiOld;
+     }
+
+
+     public double[] getLiquidMoleFractions()
+     {
+          return this.liquidMoleFractions;
+     }
+
+
+     public double[] getVapourMoleFractions()
+     {
+          return this.vapourMoleFractions;
+     }
+
+
+     public double[] getLiquidLnFugacityCoefficients()
+     {
+          return this.liquidLnFugacityCoefficients;
+     }
+
+
+     public double[] getVapourLnFugacityCoefficients()
+     {
+          return this.vapourLnFugacityCoefficients;
+     }
+
+
+     /**
+      * @return An array for the change in ln(Ki) from one iteration to the next.
+      */
+     public double[] getStep()
+     {
+          return this.step;
+     }
+
+
+     /**
+      * @return An array for the change in ln(Ki) of the iteration before the last.
+      */
+     public double[] getStepOld()
+     {
+          return this.stepOld;
+     }
+
+
+     /**
+      * @return An extra array of length numComponents for anything else.
+      */
+     public double[] getScratch()
+     {
+          return this.scratch;
+     }
+
+
+     /**
+      * @return The liquid and vapour compressibility factors. 0 means there isn't one yet, and the EoS solves from scratch.
+      */
+     public double[] getZRoots()
+     {
+          return this.zRoots;
+     }
+
+
+
+     /**
+      * @return An array for the residuals of a system of equations, long enough for n mole numbers or n ln(Ki) and T.
+      */
+     public double[] getResiduals()
+     {
+          return this.residuals;
+     }
+
+
+     /**
+      * The solver is only made again if the size changes, so solving the same system again doesn't allocate anything.
+      * @param size The number of equations.
+      * @return A Newton's method solver for systems of that size.
+      */
+     public NewtonSystemSolver getSystemSolver(int size)
+     {
+          if (this.systemSolver == null || this.systemSolver.getSize() != size)
+               this.systemSolver = new NewtonSystemSolver(size);
+
+          return this.systemSolver;
+     }
+
+}//End of SolverWorkspace class
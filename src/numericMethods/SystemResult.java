@@ -0,0 +1,74 @@
+package numericMethods;
+
+/**
+ * The result of a solver for a system of equations. The solution itself is left in the array the solver was given,
+ * so this only says how much work it took and whether it worked.
+ * Nothing is printed or thrown by the solvers that return one of these, so it's up to the caller to check the status.
+ */
+public class SystemResult
+{
+     
+     
+     public static final int CONVERGED = 0;
+     public static final int MAX_ITERATIONS = 1;  //x is the last iterate when the iterations ran out
+     public static final int SINGULAR_JACOBIAN = 2;
+     public static final int BAD_VALUE = 3;  //the function returned NaN or infinity at the starting point
+     public static final int LINE_SEARCH_FAILED = 4;  //no step along the Newton direction reduced the residual
+     
+     private int iterations;
+     private int evaluations;  //calls to findYGivenX, including the ones for finite difference Jacobians
+     private double residual;  //the largest |yi| at the returned x
+     private int status;
+     
+     
+//---------------------------------------------CONSTRUCTORS------------------------------------------------------------
+     
+     
+     /**
+      * @param iterations The number of iterations taken.
+      * @param evaluations The number of times the function was evaluated.
+      * @param residual The largest absolute value of the equations at the returned x.
+      * @param status CONVERGED, MAX_ITERATIONS, SINGULAR_JACOBIAN, BAD_VALUE or LINE_SEARCH_FAILED.
+      */
+     public SystemResult(int iterations, int evaluations, double residual, int status)
+     {
+          this.iterations = iterations;
+          this.evaluations = evaluations;
+          this.residual = residual;
+          this.status = status;
+     }
+     
+     
+//-------------------------------------------------METHODS-------------------------------------------------------------
+     
+     
+     public int getIterations()
+     {
+          return this.iterations;
+     }
+     
+     
+     public int getEvaluations()
+     {
+          return this.evaluations;
+     }
+     
+     
+     public double getResidual()
+     {
+          return this.residual;
+     }
+     
+     
+     public int getStatus()
+     {
+          return this.status;
+     }
+     
+     
+     public boolean getConverged()
+     {
+          return this.status == CONVERGED;
+     }
+     
+}//End of SystemResult class
@@ -0,0 +1,18 @@
+package numericMethods;
+
+/**
+ * A system of n equations in n unknowns, y = F(x), for solvers that work on more than one variable.
+ * The Jacobian is filled in the same call, since it usually shares most of its work with the values.
+ * Nothing is thrown. If the function can't be evaluated at x, it fills y with NaN and the solver reports it in its result.
+ */
+@FunctionalInterface
+public interface VectorFunction
+{
+     /**
+      * @param x The point to evaluate the system at.
+      * @param y Filled with the value of each equation.
+      * @param dydx Filled with the Jacobian, dydx[i][j] = dyi/dxj. null if only the values are needed.
+      */
+     public void findYGivenX(double[] x, double[] y, double[][] dydx);
+     
+}//end of interface